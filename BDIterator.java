@@ -0,0 +1,60 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+/**
+ * BDIterator is the iterator for BlockDeque. It walks the indexes of the deque in either
+ * direction using the deque's O(1) get, so no copy is made. It is fail-fast: if the deque is
+ * structurally modified after the iterator was created, next throws a
+ * ConcurrentModificationException.
+ *
+ * @param <T> The type of the data stored in the deque.
+ */
+public class BDIterator<T> implements Iterator<T> {
+    private final BlockDeque<T> deque;
+    private final int expectedModCount;
+    private final boolean descending;
+    private int next;  // Index of the next element to return.
+
+    /**
+     * Constructor for BDIterator.
+     *
+     * @param deque The deque to iterate over
+     * @param descending true to iterate from back to front
+     */
+    public BDIterator(BlockDeque<T> deque, boolean descending) {
+        this.deque = deque;
+        this.expectedModCount = deque.getModCount();
+        this.descending = descending;
+        this.next = descending ? deque.getLength() - 1 : 0;
+    }
+
+    /**
+     * Checks if there are more elements to iterate over.
+     *
+     * @return true if there are more elements, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return descending ? next >= 0 : next < deque.getLength();
+    }
+
+    /**
+     * Returns the next element in the iteration.
+     *
+     * @return The next element
+     * @throws java.util.NoSuchElementException if there are no more elements
+     * @throws ConcurrentModificationException if the deque was modified since the iterator was created
+     */
+    @Override
+    public T next() {
+        if (deque.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        T data = deque.get(next);
+        next += descending ? -1 : 1;
+        return data;
+    }
+}
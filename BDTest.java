@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * BDTest contains JUnit tests for the BlockDeque class. It tests both ends of the deque, indexed
+ * access after the elements have wrapped around the blocks and the deque has grown, and
+ * iteration in both directions.
+ */
+public class BDTest {
+
+    @Test
+    void testQueueOperations() {
+        // Test FIFO behaviour and the null returned when empty, like GenericQueue.
+        BlockDeque<String> deque = new BlockDeque<>("a");
+        deque.enqueue("b");
+        deque.addFirst("z");
+        assertEquals(3, deque.getLength());
+        assertEquals("z", deque.dequeue());
+        assertEquals("b", deque.removeLast());
+        assertEquals("a", deque.delete());
+        assertNull(deque.dequeue());
+        assertNull(deque.removeLast());
+        assertEquals(0, deque.getLength());
+    }
+
+    @Test
+    void testGetSetAcrossGrowth() {
+        // Test indexed access after the start has moved into the middle of a block and the
+        // deque has grown several times with wrapped elements.
+        BlockDeque<Integer> deque = new BlockDeque<>();
+        for (int i = 0; i < 200; i++) {
+            deque.add(i);
+        }
+        for (int i = 0; i < 150; i++) {
+            deque.delete();
+        }
+        for (int i = 200; i < 5000; i++) {
+            deque.add(i);
+        }
+        for (int i = 149; i >= 100; i--) {
+            deque.addFirst(i);
+        }
+        assertEquals(4900, deque.getLength());
+        for (int i = 0; i < deque.getLength(); i++) {
+            assertEquals(i + 100, deque.get(i));
+        }
+        assertNull(deque.get(4900));  // Out of bounds
+        assertNull(deque.get(-1));
+        assertEquals(100, deque.set(0, -100));
+        assertEquals(-100, deque.get(0));
+        assertEquals(4999, deque.set(4899, -4999));
+        assertEquals(-4999, deque.removeLast());
+    }
+
+    @Test
+    void testAgainstArrayDeque() {
+        // Test random operations at both ends against java.util.ArrayDeque.
+        BlockDeque<Integer> deque = new BlockDeque<>();
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    deque.add(i);
+                    expected.addLast(i);
+                    break;
+                case 2:
+                    deque.addFirst(i);
+                    expected.addFirst(i);
+                    break;
+                case 3:
+                    assertEquals(expected.pollFirst(), deque.delete());
+                    break;
+                default:
+                    assertEquals(expected.pollLast(), deque.removeLast());
+                    break;
+            }
+        }
+        assertEquals(expected.size(), deque.getLength());
+        assertEquals(new java.util.ArrayList<>(expected), deque.dumpList());
+    }
+
+    @Test
+    void testIterators() {
+        // Test both directions and fail-fast behaviour.
+        BlockDeque<Integer> deque = new BlockDeque<>();
+        for (int i = 0; i < 1000; i++) {
+            deque.add(i);
+        }
+        int expected = 0;
+        for (int value : deque) {
+            assertEquals(expected++, value);
+        }
+        Iterator<Integer> descending = deque.descendingIterator();
+        for (int i = 999; i >= 0; i--) {
+            assertEquals(i, descending.next());
+        }
+        assertFalse(descending.hasNext());
+        assertEquals(999L * 1000 / 2, deque.parallelStream().mapToLong(Integer::longValue).sum());
+        Iterator<Integer> iterator = deque.iterator();
+        iterator.next();
+        deque.dequeue();
+        assertThrows(java.util.ConcurrentModificationException.class, iterator::next);
+    }
+}
@@ -0,0 +1,245 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * BlockDeque is an indexable GenericList. Its elements are stored in fixed-size blocks of 256
+ * slots, used as one circular buffer: the first element can be at any slot, and elements wrap
+ * around from the last block to the first. Adding or removing at either end is O(1), and get and
+ * set are O(1) as well, because an index maps straight to a block and a slot, where the linked
+ * lists have to walk from the head.
+ *
+ * When the deque is full the array of blocks is doubled. Only block references are moved, plus
+ * at most one block's worth of elements that had wrapped around, so growing never copies the
+ * whole deque the way an array-backed list does.
+ *
+ * @param <T> The type of the data stored in the deque.
+ */
+public class BlockDeque<T> extends GenericList<T> {
+    private static final int BLOCK_SHIFT = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;  // Slots per block.
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private Object[][] blocks;  // Power-of-two number of blocks, all allocated.
+    private int start;          // Slot of the first element, counting across all blocks.
+
+    /**
+     * Constructor to initialize an empty deque.
+     */
+    public BlockDeque() {
+        blocks = new Object[][] { new Object[BLOCK_SIZE] };
+        setLength(0);
+    }
+
+    /**
+     * Constructor to initialize the deque with an initial element.
+     * 
+     * @param data The data for the initial element.
+     */
+    public BlockDeque(T data) {
+        this();
+        add(data);
+    }
+
+    private int capacity() {
+        return blocks.length << BLOCK_SHIFT;
+    }
+
+    /**
+     * Returns the slot holding the element at an index.
+     */
+    private int slotOf(int index) {
+        return (start + index) & (capacity() - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int slot) {
+        return (T) blocks[slot >>> BLOCK_SHIFT][slot & BLOCK_MASK];
+    }
+
+    private void store(int slot, Object data) {
+        blocks[slot >>> BLOCK_SHIFT][slot & BLOCK_MASK] = data;
+    }
+
+    /**
+     * Doubles the number of blocks. The blocks are reordered so the first element's block comes
+     * first; the elements that had wrapped into the start of that block move to a new block
+     * after the others.
+     */
+    private void grow() {
+        int count = blocks.length;
+        int firstBlock = start >>> BLOCK_SHIFT;
+        int offset = start & BLOCK_MASK;
+        Object[][] grown = new Object[count << 1][];
+        for (int i = 0; i < count; i++) {
+            grown[i] = blocks[(firstBlock + i) & (count - 1)];
+        }
+        for (int i = count; i < grown.length; i++) {
+            grown[i] = new Object[BLOCK_SIZE];
+        }
+        Object[] first = grown[0];
+        System.arraycopy(first, 0, grown[count], 0, offset);  // The wrapped tail elements.
+        Arrays.fill(first, 0, offset, null);
+        blocks = grown;
+        start = offset;
+    }
+
+    /**
+     * Adds an element to the back of the deque.
+     * 
+     * @param data The data to add.
+     */
+    @Override
+    public void add(T data) {
+        if (getLength() == capacity()) {
+            grow();
+        }
+        store(slotOf(getLength()), data);
+        setLength(getLength() + 1);
+    }
+
+    /**
+     * Adds an element to the front of the deque.
+     * 
+     * @param data The data to add.
+     */
+    public void addFirst(T data) {
+        if (getLength() == capacity()) {
+            grow();
+        }
+        start = (start - 1) & (capacity() - 1);
+        store(start, data);
+        setLength(getLength() + 1);
+    }
+
+    /**
+     * Removes and returns the first element of the deque.
+     * 
+     * @return The first element or null if the deque is empty.
+     */
+    @Override
+    public T delete() {
+        if (getLength() == 0) {
+            return null;
+        }
+        T data = element(start);
+        store(start, null);  // Let the element be garbage collected.
+        start = (start + 1) & (capacity() - 1);
+        setLength(getLength() - 1);
+        return data;
+    }
+
+    /**
+     * Removes and returns the last element of the deque.
+     * 
+     * @return The last element or null if the deque is empty.
+     */
+    public T removeLast() {
+        if (getLength() == 0) {
+            return null;
+        }
+        int slot = slotOf(getLength() - 1);
+        T data = element(slot);
+        store(slot, null);
+        setLength(getLength() - 1);
+        return data;
+    }
+
+    /**
+     * Adds an element to the back of the deque.
+     * 
+     * @param data The data to enqueue.
+     */
+    public void enqueue(T data) {
+        add(data);
+    }
+
+    /**
+     * Removes and returns the first element of the deque.
+     * 
+     * @return The data of the dequeued element.
+     */
+    public T dequeue() {
+        return delete();
+    }
+
+    /**
+     * Gets the data at the specified index in O(1).
+     * 
+     * @param index The index of the element to retrieve.
+     * @return The data at the specified index or null if index is out of bounds.
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= getLength()) {
+            return null;  // Return null if the index is invalid.
+        }
+        return element(slotOf(index));
+    }
+
+    /**
+     * Replaces the element at the specified index in O(1) and returns the original element.
+     * 
+     * @param index The index to replace.
+     * @param element The new element to set at the index.
+     * @return The previous element at the index, or null if out of bounds.
+     */
+    @Override
+    public T set(int index, T element) {
+        if (index < 0 || index >= getLength()) {
+            return null;  // Return null if index is invalid.
+        }
+        int slot = slotOf(index);
+        T oldValue = element(slot);
+        store(slot, element);
+        return oldValue;
+    }
+
+    /**
+     * Prints the entire deque from front to back. If the deque is empty, it prints "Empty List".
+     */
+    @Override
+    public void print() {
+        if (getLength() == 0) {
+            System.out.println("Empty List");
+            return;
+        }
+        for (int i = 0; i < getLength(); i++) {
+            System.out.println(get(i));
+        }
+    }
+
+    /**
+     * Copies the deque into an ArrayList, from front to back.
+     * 
+     * @return ArrayList containing all elements in the deque.
+     */
+    @Override
+    public ArrayList<T> dumpList() {
+        ArrayList<T> result = new ArrayList<>(getLength());
+        for (int i = 0; i < getLength(); i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a fail-fast iterator from front to back.
+     * 
+     * @return An iterator over the deque elements.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new BDIterator<>(this, false);
+    }
+
+    /**
+     * Returns a fail-fast iterator from back to front.
+     * 
+     * @return An iterator in reverse order over the deque elements.
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new BDIterator<>(this, true);
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.Iterator;
+
+/**
+ * CGQIterator class implements the Iterator interface for ConcurrentGenericQueue.
+ * It walks the linked nodes from head to tail and is safe to use while other threads
+ * enqueue and dequeue.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class CGQIterator<T> implements Iterator<T> {
+    private ConcurrentGenericQueue.Node<T> current;  // The node nextItem was read from.
+    private T nextItem;  // The next element to return, or null at the end of the queue.
+
+    /**
+     * Constructor to initialize the iterator with the first real node of the queue.
+     *
+     * @param first The node after the queue's dummy head.
+     */
+    public CGQIterator(ConcurrentGenericQueue.Node<T> first) {
+        skipRemoved(first);
+    }
+
+    /**
+     * Moves to the first node from the given one that still has data, skipping nodes whose data
+     * was taken by a dequeue. The data is read once and kept, so a dequeue that takes it later
+     * can't make next return null.
+     */
+    private void skipRemoved(ConcurrentGenericQueue.Node<T> node) {
+        while (node != null) {
+            T data = node.data;
+            if (data != null) {
+                current = node;
+                nextItem = data;
+                return;
+            }
+            node = node.next;
+        }
+        current = null;
+        nextItem = null;
+    }
+
+    /**
+     * Checks if there is another element in the queue.
+     *
+     * @return true if there is a next element, false otherwise.
+     */
+    @Override
+    public boolean hasNext() {
+        return nextItem != null;
+    }
+
+    /**
+     * Returns the next element in the queue and moves the iterator forward.
+     *
+     * @return The data of the current node.
+     * @throws java.util.NoSuchElementException if no more elements exist.
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        T data = nextItem;
+        skipRemoved(current.next);
+        return data;
+    }
+}
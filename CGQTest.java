@@ -0,0 +1,132 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * CGQTest contains JUnit tests for the ConcurrentGenericQueue class. It tests FIFO behaviour on
+ * one thread and checks that every element is delivered exactly once with many producers and
+ * consumers.
+ */
+public class CGQTest {
+
+    @Test
+    void testEnqueueDequeue() {
+        // Test FIFO order, length and the empty-queue result on a single thread.
+        ConcurrentGenericQueue<String> queue = new ConcurrentGenericQueue<>("first");
+        queue.enqueue("second");
+        queue.add("third", 7);
+        assertEquals(3, queue.getLength());
+        assertEquals("first", queue.dequeue());
+        assertEquals("second", queue.dequeue());
+        assertEquals("third", queue.dequeue());
+        assertNull(queue.dequeue());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getLength());
+    }
+
+    @Test
+    void testIterator() {
+        // Test that the iterator goes from head to tail and skips dequeued elements.
+        ConcurrentGenericQueue<Integer> queue = new ConcurrentGenericQueue<>();
+        for (int i = 1; i <= 4; i++) {
+            queue.enqueue(i);
+        }
+        queue.dequeue();
+        Iterator<Integer> iterator = queue.iterator();
+        assertEquals(2, iterator.next());
+        assertEquals(3, iterator.next());
+        assertEquals(4, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testIteratorKeepsElementSeenByHasNext() {
+        // Test that an element reported by hasNext is returned even if it is dequeued before next.
+        ConcurrentGenericQueue<Integer> queue = new ConcurrentGenericQueue<>();
+        queue.enqueue(1);
+        queue.enqueue(2);
+        Iterator<Integer> iterator = queue.iterator();
+        assertTrue(iterator.hasNext());
+        assertEquals(1, queue.dequeue());
+        assertEquals(1, iterator.next());  // Not null, although the node's data was cleared.
+        assertEquals(2, queue.dequeue());
+        assertTrue(iterator.hasNext());
+        assertEquals(2, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void testNullRejected() {
+        // Null would be indistinguishable from the empty-queue result of dequeue.
+        ConcurrentGenericQueue<String> queue = new ConcurrentGenericQueue<>();
+        assertThrows(NullPointerException.class, () -> queue.enqueue(null));
+    }
+
+    @Test
+    void testManyProducersManyConsumers() throws Exception {
+        // Every element enqueued by any producer must be dequeued exactly once, and each
+        // producer's elements must come out in the order they went in.
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50000;
+        ConcurrentGenericQueue<int[]> queue = new ConcurrentGenericQueue<>();
+        AtomicLongArray seen = new AtomicLongArray(producers * perProducer);
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger orderViolations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads.add(new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    queue.enqueue(new int[] { id, i });
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads.add(new Thread(() -> {
+                int[] last = new int[producers];
+                java.util.Arrays.fill(last, -1);
+                await(start);
+                while (consumed.get() < producers * perProducer) {
+                    int[] item = queue.dequeue();
+                    if (item == null) {
+                        continue;
+                    }
+                    if (item[1] <= last[item[0]]) {
+                        orderViolations.incrementAndGet();
+                    }
+                    last[item[0]] = item[1];
+                    seen.incrementAndGet(item[0] * perProducer + item[1]);
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, orderViolations.get());
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals(1, seen.get(i));
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getLength());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * CHMIterator class implements the Iterator interface for ConcurrentMyHashMap.
+ * It walks each segment's current table in turn and is safe to use while other threads write.
+ *
+ * @param <T> The type of values stored in the HashMap
+ */
+public class CHMIterator<T> implements Iterator<T> {
+    private ConcurrentMyHashMap.Segment<T>[] segments;
+    private int currentSegment;
+    private AtomicReferenceArray<ConcurrentMyHashMap.Node<T>> currentTable;
+    private int currentBucket;
+    private ConcurrentMyHashMap.Node<T> nextNode;
+
+    /**
+     * Constructor for CHMIterator.
+     *
+     * @param segments The segments of the ConcurrentMyHashMap
+     */
+    public CHMIterator(ConcurrentMyHashMap.Segment<T>[] segments) {
+        this.segments = segments;
+        this.currentSegment = -1;
+        this.currentBucket = 0;
+        advance();
+    }
+
+    /**
+     * Moves to the next node, crossing into later buckets and segments as needed.
+     */
+    private void advance() {
+        if (nextNode != null) {
+            nextNode = nextNode.next;
+        }
+        while (nextNode == null) {
+            if (currentTable == null || currentBucket >= currentTable.length()) {
+                if (++currentSegment >= segments.length) {
+                    return;
+                }
+                currentTable = segments[currentSegment].table;
+                currentBucket = 0;
+                continue;
+            }
+            nextNode = currentTable.get(currentBucket++);
+        }
+    }
+
+    /**
+     * Checks if there are more elements to iterate over.
+     *
+     * @return true if there are more elements, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return nextNode != null;
+    }
+
+    /**
+     * Returns the next value in the iteration.
+     *
+     * @return The next value
+     * @throws java.util.NoSuchElementException if there are no more elements
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        T value = nextNode.value;
+        advance();
+        return value;
+    }
+}
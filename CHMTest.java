@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CHMTest contains JUnit tests for the ConcurrentMyHashMap class. Besides the single-threaded
+ * operations it runs writers and readers on several threads and compares the result with a
+ * MyHashMap guarded by a global lock that receives the same operations.
+ */
+public class CHMTest {
+
+    @Test
+    void testBasicOperations() {
+        // Test the single-threaded API against the behaviour of MyHashMap.
+        ConcurrentMyHashMap<Integer> map = new ConcurrentMyHashMap<>("key1", 1);
+        map.put("key2", 2);
+        map.put("key1", 11);
+        assertEquals(2, map.size());
+        assertEquals(11, (int) map.get("key1"));
+        assertTrue(map.contains("key2"));
+        assertFalse(map.contains("key3"));
+        assertEquals(2, (int) map.replace("key2", 22));
+        assertNull(map.replace("key3", 3));
+        assertNull(map.get("key3"));
+    }
+
+    @Test
+    void testIteratorAfterResize() {
+        // Test that iteration visits every value exactly once after segments have grown.
+        ConcurrentMyHashMap<Integer> map = new ConcurrentMyHashMap<>("key0", 0);
+        for (int i = 1; i < 5000; i++) {
+            map.put("key" + i, i);
+        }
+        long sum = 0;
+        int count = 0;
+        for (int value : map) {
+            sum += value;
+            count++;
+        }
+        assertEquals(5000, count);
+        assertEquals(4999L * 5000 / 2, sum);
+    }
+
+    @Test
+    void testConcurrentWritersAndReaders() throws Exception {
+        // Writers insert overlapping key ranges and replace values while readers keep looking
+        // keys up; the final contents must match a synchronized MyHashMap given the same writes.
+        int threads = 8;
+        int keysPerThread = 20000;
+        ConcurrentMyHashMap<Integer> map = new ConcurrentMyHashMap<>("seed", -1);
+        MyHashMap<String, Integer> expected = new MyHashMap<>("seed", -1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ArrayList<Thread> writers = new ArrayList<>();
+        ArrayList<Thread> readers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            writers.add(new Thread(() -> {
+                await(start);
+                for (int i = 0; i < keysPerThread; i++) {
+                    String key = "k" + (id * keysPerThread / 2 + i);  // Neighbouring threads overlap.
+                    map.put(key, i);
+                    map.replace(key, i);
+                    synchronized (expected) {
+                        expected.put(key, i);
+                    }
+                }
+            }));
+            readers.add(new Thread(() -> {
+                await(start);
+                while (writing.get()) {
+                    Integer value = map.get("seed");
+                    if (value == null || value != -1) {
+                        failed.set(true);  // A key present from the start must never disappear.
+                    }
+                    map.contains("k" + id);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertFalse(failed.get());
+        assertEquals(expected.size(), map.size());
+        int total = (threads + 1) * keysPerThread / 2;
+        for (int i = 0; i < total; i++) {
+            String key = "k" + i;
+            assertEquals(expected.contains(key), map.contains(key));
+        }
+        int count = 0;
+        for (Integer ignored : map) {
+            count++;
+        }
+        assertEquals(expected.size(), count);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
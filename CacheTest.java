@@ -0,0 +1,161 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+/**
+ * CacheTest contains JUnit tests for the MyCache class and its FrequencySketch.
+ */
+public class CacheTest {
+
+    @Test
+    void testLruEviction() {
+        // Test that the least recently used entry is evicted first.
+        MyCache<String, Integer> cache = new MyCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(1, (int) cache.get("a"));  // "b" is now the least recently used.
+        cache.put("d", 4);
+        assertEquals(3, cache.size());
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("a"));
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("d"));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testCounters() {
+        // Test hit, miss and eviction counts and the hit rate.
+        MyCache<String, Integer> cache = new MyCache<>(2);
+        assertEquals(1.0, cache.hitRate());
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, (int) cache.get("a"));
+        assertNull(cache.get("x"));
+        cache.put("a", 11);  // Updating a key is not an eviction.
+        assertEquals(11, (int) cache.get("a"));
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(0, cache.evictionCount());
+        assertEquals(2.0 / 3, cache.hitRate(), 1e-9);
+        assertEquals(2, (int) cache.remove("b"));
+        assertNull(cache.remove("b"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testWeightedEviction() {
+        // Test that eviction keeps the total weight within the maximum.
+        MyCache<String, String> cache = new MyCache<>(10, (key, value) -> value.length(), false);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        assertEquals(8, cache.weight());
+        cache.put("c", "ccc");  // 11 > 10, so "a" goes.
+        assertFalse(cache.contains("a"));
+        assertEquals(7, cache.weight());
+        cache.put("b", "b");    // Shrinking an entry updates the weight.
+        assertEquals(4, cache.weight());
+        cache.put("big", "xxxxxxxxxxx");  // Heavier than the whole cache: not kept.
+        assertFalse(cache.contains("big"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.evictionCount());
+    }
+
+    @Test
+    void testAdmissionKeepsFrequentEntries() {
+        // Test that a scan of one-off keys doesn't flush popular keys when admission is enabled,
+        // while a plain LRU cache loses them.
+        MyCache<Integer, Integer> lru = new MyCache<>(100, false);
+        MyCache<Integer, Integer> tinyLfu = new MyCache<>(100, true);
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                lru.put(key, key);
+                tinyLfu.put(key, key);
+                lru.get(key);
+                tinyLfu.get(key);
+            }
+        }
+        for (int key = 1000; key < 2000; key++) {
+            lru.put(key, key);
+            tinyLfu.put(key, key);
+        }
+        int lruKept = 0;
+        int tinyLfuKept = 0;
+        for (int key = 0; key < 50; key++) {
+            lruKept += lru.contains(key) ? 1 : 0;
+            tinyLfuKept += tinyLfu.contains(key) ? 1 : 0;
+        }
+        assertEquals(0, lruKept);
+        assertTrue(tinyLfuKept >= 45, "kept " + tinyLfuKept);  // Ties between hot keys may cost one or two.
+        assertEquals(100, tinyLfu.size());
+    }
+
+    @Test
+    void testDemotedEntryIsNotAnAdmissionCandidate() {
+        // Test that when a heavier update promotes an entry, demotes another from the protected
+        // segment and overflows the cache in the same put, the demoted entry isn't treated as a
+        // newcomer competing for admission: with no window entry moved out, the oldest probation
+        // entry is evicted instead.
+        MyCache<String, Integer> cache = new MyCache<>(100, (key, value) -> value, true);  // Window 1, protected 79.
+        for (int i = 0; i < 10; i++) {
+            cache.get("hot");  // Makes "hot" far more frequent than "p".
+        }
+        cache.put("hot", 10);  // Moves straight on to probation.
+        cache.put("p", 70);
+        cache.get("p");        // Promoted to protected.
+        cache.put("q", 10);    // Probation: hot, q.
+        assertEquals(90, cache.weight());
+        assertEquals(0, cache.evictionCount());
+
+        cache.put("q", 25);    // Promotes q, demotes p behind hot, and weighs 105 in total.
+        assertEquals(1, cache.evictionCount());
+        assertFalse(cache.contains("hot"));  // The oldest probation entry.
+        assertTrue(cache.contains("p"));
+        assertTrue(cache.contains("q"));
+        assertEquals(95, cache.weight());
+    }
+
+    @Test
+    void testAgainstReferenceLru() {
+        // Test random operations against java.util.LinkedHashMap in access order.
+        int maximum = 64;
+        MyCache<Integer, Integer> cache = new MyCache<>(maximum);
+        java.util.LinkedHashMap<Integer, Integer> expected = new java.util.LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Integer, Integer> eldest) {
+                return size() > maximum;
+            }
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(200);
+            if (random.nextBoolean()) {
+                cache.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.get(key), cache.get(key));
+            }
+        }
+        assertEquals(expected.size(), cache.size());
+    }
+
+    @Test
+    void testFrequencySketch() {
+        // Test that counts are estimated, saturate at 15 and age out after the sample period.
+        FrequencySketch sketch = new FrequencySketch(64);
+        int hot = "hot".hashCode();
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(hot);
+        }
+        assertEquals(5, sketch.frequency(hot));
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(hot);
+        }
+        assertEquals(15, sketch.frequency(hot));
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment(i * 31 + 7);  // Unrelated keys eventually trigger a reset.
+        }
+        assertTrue(sketch.frequency(hot) < 15);
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentGenericQueue is a lock-free FIFO queue for handing work between threads. It is the
+ * Michael-Scott queue: a singly linked list of nodes shaped like GenericList.Node, starting
+ * from a dummy head, whose next pointers and head/tail references are only changed with
+ * compare-and-set. Any number of threads may enqueue and dequeue at the same time. Because
+ * dequeue returns null for an empty queue, null elements are not allowed.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class ConcurrentGenericQueue<T> implements Iterable<T> {
+    private volatile Node<T> head;  // Dummy node; the first element is head.next.
+    private volatile Node<T> tail;  // Last node, or a node shortly behind it.
+    private final LongAdder length = new LongAdder();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentGenericQueue, Node> HEAD =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentGenericQueue.class, Node.class, "head");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentGenericQueue, Node> TAIL =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentGenericQueue.class, Node.class, "tail");
+
+    /**
+     * The inner Node class mirrors GenericList.Node, with a volatile next pointer that is
+     * linked with compare-and-set.
+     */
+    static final class Node<T> {
+        volatile T data;  // The data stored in the node; cleared once the node becomes the dummy.
+        final int code;   // Optional code value associated with the data.
+        volatile Node<T> next;  // Reference to the next node in the list.
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        Node(T data, int code) {
+            this.data = data;
+            this.code = code;
+        }
+
+        boolean casNext(Node<T> expected, Node<T> update) {
+            return NEXT.compareAndSet(this, expected, update);
+        }
+    }
+
+    /**
+     * Constructor to initialize an empty queue.
+     */
+    public ConcurrentGenericQueue() {
+        Node<T> dummy = new Node<>(null, 0);
+        head = dummy;
+        tail = dummy;
+    }
+
+    /**
+     * Constructor to initialize the queue with a single element.
+     *
+     * @param data The data for the first node in the queue.
+     */
+    public ConcurrentGenericQueue(T data) {
+        this();
+        add(data);
+    }
+
+    /**
+     * Adds a new element to the back of the queue.
+     *
+     * @param data The data to add to the queue.
+     */
+    public void add(T data) {
+        add(data, 0);
+    }
+
+    /**
+     * Adds a new element with a specific code to the back of the queue.
+     *
+     * @param data The data to add to the queue.
+     * @param code The code to associate with the data.
+     * @throws NullPointerException if data is null.
+     */
+    public void add(T data, int code) {
+        if (data == null) {
+            throw new NullPointerException("ConcurrentGenericQueue does not accept null elements");
+        }
+        Node<T> newNode = new Node<>(data, code);
+        while (true) {
+            Node<T> last = tail;
+            Node<T> next = last.next;
+            if (last != tail) {
+                continue;  // Tail moved while we were reading it.
+            }
+            if (next == null) {
+                if (last.casNext(null, newNode)) {
+                    TAIL.compareAndSet(this, last, newNode);  // Failure means someone helped already.
+                    length.increment();
+                    return;
+                }
+            } else {
+                TAIL.compareAndSet(this, last, next);  // Help a lagging enqueue finish.
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the first element of the queue.
+     *
+     * @return The data of the first element or null if the queue is empty.
+     */
+    public T delete() {
+        while (true) {
+            Node<T> first = head;
+            Node<T> last = tail;
+            Node<T> next = first.next;
+            if (first != head) {
+                continue;  // Head moved while we were reading it.
+            }
+            if (next == null) {
+                return null;  // Queue is empty.
+            }
+            if (first == last) {
+                TAIL.compareAndSet(this, last, next);  // Tail is lagging behind; help it along.
+                continue;
+            }
+            T data = next.data;
+            if (HEAD.compareAndSet(this, first, next)) {
+                next.data = null;  // The node is now the dummy; don't keep the data reachable.
+                length.decrement();
+                return data;
+            }
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue.
+     *
+     * @param data The data to enqueue.
+     */
+    public void enqueue(T data) {
+        add(data);
+    }
+
+    /**
+     * Removes and returns the first element of the queue.
+     *
+     * @return The data of the dequeued element, or null if the queue is empty.
+     */
+    public T dequeue() {
+        return delete();
+    }
+
+    /**
+     * Returns the number of elements in the queue. While other threads are enqueuing or
+     * dequeuing this is only an estimate.
+     *
+     * @return The approximate length of the queue.
+     */
+    public int getLength() {
+        return length.intValue();
+    }
+
+    /**
+     * Checks whether the queue currently has no elements.
+     *
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    /**
+     * Returns an iterator from head to tail. It never throws because of concurrent changes and
+     * may or may not see elements enqueued after it was created.
+     *
+     * @return An iterator over the queue elements.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new CGQIterator<>(head.next);
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConcurrentMyHashMap is a thread-safe version of MyHashMap with the same public API. The keys
+ * are split across a fixed number of segments, each with its own lock and its own power-of-two
+ * table of buckets, so writers only contend when they hit the same segment and each segment
+ * resizes independently while the others keep accepting writes.
+ *
+ * Reads never lock. Buckets are published through an AtomicReferenceArray, node values are
+ * volatile and chain links are final, so get and contains always see a consistent chain. The
+ * size is kept in a LongAdder so that concurrent inserts do not fight over one counter.
+ *
+ * @param <T> The type of values stored in the HashMap
+ */
+public class ConcurrentMyHashMap<T> implements Iterable<T> {
+    private static final int DEFAULT_SEGMENTS = 16;          // Number of independently locked segments.
+    private static final int DEFAULT_SEGMENT_CAPACITY = 16;  // Initial buckets per segment (power of two).
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;  // Entries per bucket before a segment grows.
+    private static final int MAXIMUM_SEGMENT_CAPACITY = 1 << 26;
+
+    private final Segment<T>[] segments;
+    private final int segmentShift;  // Shift that moves the segment bits of a hash to the bottom.
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Node class represents a key-value pair in a bucket chain. Everything except the value is
+     * final, so a chain can be read safely while another thread prepends to it.
+     *
+     * @param <T> The type of the value
+     */
+    static final class Node<T> {
+        final String key;
+        final int hash;
+        volatile T value;
+        final Node<T> next;
+
+        Node(String key, int hash, T value, Node<T> next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Segment class holds one independently locked and resized part of the map. The lock is
+     * only taken by writers.
+     *
+     * @param <T> The type of the value
+     */
+    static final class Segment<T> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        volatile AtomicReferenceArray<Node<T>> table;
+        int count;      // Entries in this segment, only touched while holding the lock.
+        int threshold;  // Count at which the table is doubled.
+
+        Segment(int capacity) {
+            table = new AtomicReferenceArray<>(capacity);
+            threshold = (int) (capacity * DEFAULT_LOAD_FACTOR);
+        }
+
+        /**
+         * Finds the node holding a key without locking.
+         */
+        Node<T> find(String key, int hash) {
+            AtomicReferenceArray<Node<T>> tab = table;
+            for (Node<T> node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Doubles the table. The chains are copied rather than relinked, because readers may
+         * still be walking the old table.
+         */
+        void resize() {
+            AtomicReferenceArray<Node<T>> oldTable = table;
+            int oldCapacity = oldTable.length();
+            if (oldCapacity >= MAXIMUM_SEGMENT_CAPACITY) {
+                threshold = Integer.MAX_VALUE;
+                return;
+            }
+            int newCapacity = oldCapacity << 1;
+            AtomicReferenceArray<Node<T>> newTable = new AtomicReferenceArray<>(newCapacity);
+            for (int i = 0; i < oldCapacity; i++) {
+                for (Node<T> node = oldTable.get(i); node != null; node = node.next) {
+                    int index = node.hash & (newCapacity - 1);
+                    newTable.set(index, new Node<>(node.key, node.hash, node.value, newTable.get(index)));
+                }
+            }
+            table = newTable;  // Volatile write publishes the fully built table.
+            threshold = (int) (newCapacity * DEFAULT_LOAD_FACTOR);
+        }
+    }
+
+    /**
+     * Constructor for ConcurrentMyHashMap.
+     *
+     * @param key The initial key
+     * @param value The initial value
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentMyHashMap(String key, T value) {
+        segments = (Segment<T>[]) new Segment<?>[DEFAULT_SEGMENTS];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<>(DEFAULT_SEGMENT_CAPACITY);
+        }
+        segmentShift = 32 - Integer.numberOfTrailingZeros(DEFAULT_SEGMENTS);
+        put(key, value);
+    }
+
+    /**
+     * Picks the segment for a hash from its top bits, leaving the low bits for the bucket index.
+     */
+    private Segment<T> segmentFor(int hash) {
+        return segments[(hash >>> segmentShift) & (segments.length - 1)];
+    }
+
+    /**
+     * Puts a key-value pair into the HashMap.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(String key, T value) {
+        int hashCode = MyHashMap.hash(key);
+        Segment<T> segment = segmentFor(hashCode);
+        segment.lock();
+        try {
+            Node<T> existing = segment.find(key, hashCode);
+            if (existing != null) {
+                existing.value = value; // Update the value for existing key
+                return;
+            }
+            AtomicReferenceArray<Node<T>> tab = segment.table;
+            int index = hashCode & (tab.length() - 1);
+            tab.set(index, new Node<>(key, hashCode, value, tab.get(index)));
+            if (++segment.count > segment.threshold) {
+                segment.resize();
+            }
+        } finally {
+            segment.unlock();
+        }
+        size.increment();
+    }
+
+    /**
+     * Checks if the HashMap contains a specific key.
+     *
+     * @param key The key to check
+     * @return true if the key exists, false otherwise
+     */
+    public boolean contains(String key) {
+        int hashCode = MyHashMap.hash(key);
+        return segmentFor(hashCode).find(key, hashCode) != null;
+    }
+
+    /**
+     * Gets the value associated with a specific key.
+     *
+     * @param key The key
+     * @return The value associated with the key, or null if the key doesn't exist
+     */
+    public T get(String key) {
+        int hashCode = MyHashMap.hash(key);
+        Node<T> node = segmentFor(hashCode).find(key, hashCode);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Replaces the value for a specific key.
+     *
+     * @param key The key
+     * @param value The new value
+     * @return The old value associated with the key, or null if the key doesn't exist
+     */
+    public T replace(String key, T value) {
+        int hashCode = MyHashMap.hash(key);
+        Segment<T> segment = segmentFor(hashCode);
+        segment.lock();
+        try {
+            Node<T> node = segment.find(key, hashCode);
+            if (node == null) {
+                return null;
+            }
+            T oldValue = node.value;
+            node.value = value;
+            return oldValue;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in the HashMap. While other threads are writing
+     * this is only an estimate.
+     *
+     * @return The size of the HashMap
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Checks if the HashMap is empty.
+     *
+     * @return true if the HashMap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size.sum() == 0;
+    }
+
+    /**
+     * Returns an iterator over the values in the HashMap. The iterator never throws because of
+     * concurrent writes; it may or may not see entries added after it was created.
+     *
+     * @return An iterator over the values
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new CHMIterator<>(segments);
+    }
+}
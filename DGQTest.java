@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * DGQTest contains JUnit tests for the DurableGenericQueue class. A crash is simulated by
+ * abandoning a queue without closing it and opening a new one on the same directory.
+ */
+public class DGQTest {
+
+    @TempDir
+    Path dir;
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void testFifoAcrossSegments() throws IOException {
+        // Test order across segment rolls and that fully read segments are deleted.
+        try (DurableGenericQueue<String> queue = new DurableGenericQueue<>(dir, SnapshotCodec.UTF8, 256, 10)) {
+            assertNull(queue.dequeue());
+            for (int i = 0; i < 200; i++) {
+                queue.enqueue("item" + i);
+            }
+            assertEquals(200, queue.getLength());
+            assertTrue(segmentFiles() > 5);
+            assertEquals("item0", queue.peek());
+            for (int i = 0; i < 200; i++) {
+                assertEquals("item" + i, queue.dequeue());
+            }
+            assertTrue(queue.isEmpty());
+            queue.sync();
+            assertEquals(1, segmentFiles());
+            queue.enqueue("");  // Empty payloads are records too.
+            assertEquals("", queue.dequeue());
+        }
+    }
+
+    @Test
+    void testReopenAfterClose() throws IOException {
+        // Test that a closed queue reopens with the elements that were not dequeued.
+        try (DurableGenericQueue<Integer> queue = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 1024, 1000)) {
+            for (int i = 0; i < 1000; i++) {
+                queue.enqueue(i);
+            }
+            for (int i = 0; i < 300; i++) {
+                queue.dequeue();
+            }
+        }
+        try (DurableGenericQueue<Integer> queue = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 1024, 1000)) {
+            assertEquals(700, queue.getLength());
+            for (int i = 300; i < 1000; i++) {
+                assertEquals(i, (int) queue.dequeue());
+            }
+            assertNull(queue.dequeue());
+        }
+        DurableGenericQueue<Integer> closed = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 1024, 1000);
+        closed.close();
+        assertThrows(IllegalStateException.class, () -> closed.enqueue(1));
+    }
+
+    @Test
+    void testRecoveryDropsTornRecords() throws IOException {
+        // Test that recovery resumes after the last intact record when a crash tore a write.
+        DurableGenericQueue<Integer> queue = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 1024, 1000);
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(i);
+        }
+        queue.sync();
+        for (int i = 10; i < 15; i++) {
+            queue.enqueue(i);
+        }
+        // Crash while record 10 was half written: corrupt its payload (records are 12 bytes).
+        try (FileChannel channel = FileChannel.open(dir.resolve(String.format("%020d.seg", 0)), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7F }), 10 * 12 + 8);
+        }
+        DurableGenericQueue<Integer> recovered = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 1024, 1000);
+        assertEquals(10, recovered.getLength());
+        recovered.enqueue(99);  // Written where the torn record was.
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) recovered.dequeue());
+        }
+        assertEquals(99, (int) recovered.dequeue());
+        recovered.close();
+    }
+
+    @Test
+    void testUnsyncedDequeuesAreRedelivered() throws IOException {
+        // Test that dequeues after the last checkpoint are undone by a crash, and that group
+        // commit makes the earlier ones durable.
+        DurableGenericQueue<Integer> queue = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 128, 5);
+        for (int i = 0; i < 50; i++) {
+            queue.enqueue(i);  // 50 operations: synced every 5.
+        }
+        for (int i = 0; i < 27; i++) {
+            queue.dequeue();   // Synced after the 25th.
+        }
+        DurableGenericQueue<Integer> recovered = new DurableGenericQueue<>(dir, SnapshotCodec.INTEGER, 128, 5);
+        assertEquals(25, recovered.getLength());
+        assertEquals(25, (int) recovered.peek());
+        recovered.close();
+    }
+
+    @Test
+    void testElementLargerThanSegment() throws IOException {
+        // Test that an element that can't fit in a segment is refused.
+        try (DurableGenericQueue<String> queue = new DurableGenericQueue<>(dir, SnapshotCodec.UTF8, 64, 1)) {
+            assertThrows(IllegalArgumentException.class, () -> queue.enqueue("x".repeat(60)));
+            queue.enqueue("x".repeat(56));
+            assertEquals(56, queue.dequeue().length());
+        }
+    }
+}
@@ -0,0 +1,391 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.zip.CRC32;
+
+/**
+ * DurableGenericQueue is the persistent mode of GenericQueue: a FIFO queue whose elements live in
+ * memory-mapped segment files in a directory, so it survives a crash and can hold a backlog much
+ * larger than the heap. Elements are serialized with a SnapshotCodec.
+ *
+ * Each segment is a fixed-size file of records: the payload length + 1 (0 marks the end of the
+ * written data, -1 the end of a segment that had no room for the next record), a CRC32 of the
+ * payload, then the payload. The length is written last, and the CRC catches records torn by a
+ * crash. Enqueue appends to the last segment and starts a new one when it is full. Dequeue reads
+ * from the first, and segments are deleted once every record in them has been dequeued and the
+ * checkpoint says so.
+ *
+ * The checkpoint is a small file holding the read position (segment and offset) with a CRC,
+ * replaced atomically. sync() forces the written segments to disk and then writes the checkpoint.
+ * Syncing after every operation is slow, so it happens after syncEvery enqueues and dequeues
+ * (group commit), on close, and whenever sync() is called; a crash loses at most the operations
+ * since the last sync. Lost dequeues are delivered again, so consumers see each element at least
+ * once.
+ *
+ * Opening a directory recovers it: the queue resumes from the checkpoint and scans the records
+ * after it, stopping at the first torn or missing one, which becomes the new tail.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class DurableGenericQueue<T> implements Closeable {
+    private static final int RECORD_HEADER = 8;    // Length + 1, then CRC32 of the payload.
+    private static final int END_OF_SEGMENT = -1;  // Stored length of a segment's closing marker.
+    private static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * Segment is one mapped segment file.
+     */
+    private static final class Segment {
+        final long number;
+        final Path path;
+        final MappedByteBuffer buffer;
+        boolean dirty;  // Written since it was last forced.
+
+        Segment(long number, Path path, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final SnapshotCodec<T> codec;
+    private final int segmentBytes;
+    private final int syncEvery;
+    private final ArrayList<Segment> segments = new ArrayList<>();  // Oldest first; read from the first.
+    private final ArrayList<Segment> consumed = new ArrayList<>();  // Fully read, deleted at the next sync.
+    private final CRC32 crc = new CRC32();
+    private int readOffset;
+    private int writeOffset;   // In the last segment.
+    private long length;
+    private int unsynced;      // Operations since the last sync.
+    private boolean readMoved; // The read position has changed since the last checkpoint.
+    private boolean closed;
+
+    /**
+     * Opens or creates a queue in a directory, with 64 MB segments, syncing after every 1000
+     * operations.
+     *
+     * @param directory The directory of the segment and checkpoint files
+     * @param codec Serializes the elements
+     * @throws IOException if the directory can't be read or written
+     */
+    public DurableGenericQueue(Path directory, SnapshotCodec<T> codec) throws IOException {
+        this(directory, codec, DEFAULT_SEGMENT_BYTES, 1000);
+    }
+
+    /**
+     * Opens or creates a queue in a directory, recovering its contents after a crash.
+     *
+     * @param directory The directory of the segment and checkpoint files
+     * @param codec Serializes the elements
+     * @param segmentBytes The size of a segment file; an element must fit in one
+     * @param syncEvery The number of enqueues and dequeues between syncs; 1 makes every one durable
+     * @throws IOException if the directory can't be read or written
+     */
+    public DurableGenericQueue(Path directory, SnapshotCodec<T> codec, int segmentBytes, int syncEvery) throws IOException {
+        if (segmentBytes < 64) {
+            throw new IllegalArgumentException("Illegal segment size: " + segmentBytes);
+        }
+        if (syncEvery < 1) {
+            throw new IllegalArgumentException("Illegal sync interval: " + syncEvery);
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.segmentBytes = segmentBytes;
+        this.syncEvery = syncEvery;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+    }
+
+    private Segment openSegment(long number) throws IOException {
+        Path path = segmentPath(number);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), segmentBytes);  // A new file is zero-filled.
+            return new Segment(number, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Loads the checkpoint and segments and finds the tail, dropping torn records.
+     */
+    private void recover() throws IOException {
+        ArrayList<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                numbers.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        Collections.sort(numbers);
+        long readSegment = numbers.isEmpty() ? 0 : numbers.get(0);
+        readOffset = 0;
+        ByteBuffer checkpoint = readCheckpoint();
+        if (checkpoint != null && numbers.contains(checkpoint.getLong(0))) {
+            readSegment = checkpoint.getLong(0);
+            readOffset = checkpoint.getInt(8);
+        }
+        for (long number : numbers) {
+            if (number < readSegment) {
+                Files.delete(segmentPath(number));  // Consumed before the crash, not yet deleted.
+            } else {
+                segments.add(openSegment(number));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(readSegment));
+        }
+
+        // Count the records from the read position to the first missing or torn one.
+        int offset = readOffset;
+        for (int i = 0; i < segments.size(); i++) {
+            ByteBuffer buffer = segments.get(i).buffer;
+            int stored;
+            while ((stored = validRecord(buffer, offset)) > 0) {
+                offset += RECORD_HEADER + stored - 1;
+                length++;
+            }
+            if (stored == END_OF_SEGMENT && i + 1 < segments.size()) {
+                offset = 0;
+                continue;
+            }
+            // This is the tail: clear what is after it and drop any later segments.
+            byte[] zeros = new byte[4096];
+            buffer.position(offset);
+            while (buffer.hasRemaining()) {
+                buffer.put(zeros, 0, Math.min(zeros.length, buffer.remaining()));
+            }
+            while (segments.size() > i + 1) {
+                Files.delete(segments.remove(segments.size() - 1).path);
+            }
+            break;
+        }
+        writeOffset = offset;
+    }
+
+    /**
+     * Returns the stored length of the record at an offset, END_OF_SEGMENT if the segment ends
+     * there, or 0 if there is no complete record there.
+     */
+    private int validRecord(ByteBuffer buffer, int offset) {
+        if (offset + RECORD_HEADER > buffer.capacity()) {
+            return END_OF_SEGMENT;  // Too little room left even for a marker.
+        }
+        int stored = buffer.getInt(offset);
+        if (stored == END_OF_SEGMENT) {
+            return END_OF_SEGMENT;
+        }
+        if (stored <= 0 || stored - 1 > buffer.capacity() - offset - RECORD_HEADER) {
+            return 0;
+        }
+        return checksum(buffer, offset + RECORD_HEADER, stored - 1) == buffer.getInt(offset + 4) ? stored : 0;
+    }
+
+    private int checksum(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private ByteBuffer readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        ByteBuffer checkpoint = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (checkpoint.capacity() != 16) {
+            return null;
+        }
+        return checksum(checkpoint, 0, 12) == checkpoint.getInt(12) ? checkpoint : null;
+    }
+
+    private void writeCheckpoint() throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(16);
+        checkpoint.putLong(0, segments.get(0).number);
+        checkpoint.putInt(8, readOffset);
+        checkpoint.putInt(12, checksum(checkpoint, 0, 12));
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(checkpoint);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Queue is closed");
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue. It is durable after the next sync.
+     *
+     * @param data The data to enqueue.
+     * @throws IllegalArgumentException if the serialized element doesn't fit in a segment
+     * @throws UncheckedIOException if a segment file can't be created or synced
+     */
+    public void enqueue(T data) {
+        checkOpen();
+        byte[] payload = codec.encode(data);
+        int bytes = RECORD_HEADER + payload.length;
+        if (bytes > segmentBytes) {
+            throw new IllegalArgumentException("Element of " + payload.length + " bytes doesn't fit in a segment");
+        }
+        try {
+            Segment segment = segments.get(segments.size() - 1);
+            if (writeOffset + bytes > segment.buffer.capacity()) {
+                if (writeOffset + RECORD_HEADER <= segment.buffer.capacity()) {
+                    segment.buffer.putInt(writeOffset, END_OF_SEGMENT);
+                }
+                segment.dirty = true;
+                segment = openSegment(segment.number + 1);
+                segments.add(segment);
+                writeOffset = 0;
+            }
+            ByteBuffer buffer = segment.buffer;
+            buffer.position(writeOffset + RECORD_HEADER);
+            buffer.put(payload);
+            buffer.putInt(writeOffset + 4, checksum(buffer, writeOffset + RECORD_HEADER, payload.length));
+            buffer.putInt(writeOffset, payload.length + 1);  // Last, so a torn record reads as absent.
+            segment.dirty = true;
+            writeOffset += bytes;
+            length++;
+            operationDone();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves the read position past closing markers and onto the record to read next.
+     */
+    private void skipToRecord() {
+        ByteBuffer buffer = segments.get(0).buffer;
+        if (readOffset + RECORD_HEADER > buffer.capacity() || buffer.getInt(readOffset) == END_OF_SEGMENT) {
+            readOffset = 0;
+            consumed.add(segments.remove(0));
+        }
+    }
+
+    /**
+     * Returns the element at the front of the queue without removing it.
+     *
+     * @return The element, or null if the queue is empty.
+     */
+    public T peek() {
+        checkOpen();
+        if (length == 0) {
+            return null;
+        }
+        skipToRecord();
+        ByteBuffer buffer = segments.get(0).buffer;
+        int stored = buffer.getInt(readOffset);
+        ByteBuffer view = buffer.duplicate();
+        view.limit(readOffset + RECORD_HEADER + stored - 1).position(readOffset + RECORD_HEADER);
+        return codec.decode(view.slice());
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue. The removal is durable after
+     * the next sync; until then a crash brings the element back.
+     *
+     * @return The element, or null if the queue is empty.
+     * @throws UncheckedIOException if a sync fails
+     */
+    public T dequeue() {
+        T data = peek();
+        if (length == 0) {
+            return null;
+        }
+        readOffset += RECORD_HEADER + segments.get(0).buffer.getInt(readOffset) - 1;
+        readMoved = true;
+        length--;
+        try {
+            operationDone();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return data;
+    }
+
+    private void operationDone() throws IOException {
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    /**
+     * Makes every enqueue and dequeue so far durable: forces the written segments to disk,
+     * records the read position in the checkpoint and deletes fully read segments.
+     *
+     * @throws IOException if a file can't be synced, written or deleted
+     */
+    public void sync() throws IOException {
+        checkOpen();
+        for (Segment segment : segments) {
+            if (segment.dirty) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+        }
+        if (readMoved || !consumed.isEmpty()) {
+            writeCheckpoint();
+            readMoved = false;
+        }
+        for (Segment segment : consumed) {
+            Files.deleteIfExists(segment.path);  // The mapping is released when the buffer is collected.
+        }
+        consumed.clear();
+        unsynced = 0;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return The number of elements
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if the queue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Syncs and closes the queue.
+     *
+     * @throws IOException if the final sync fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            sync();
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * FrequencySketch estimates how often each key has been seen recently, in a fixed amount of
+ * memory. It is a count-min sketch of 4-bit counters packed sixteen to a long: each key bumps
+ * one counter in each of four rows and its estimate is the smallest of the four. Once the
+ * number of increments reaches the sample size, every counter is halved, so old popularity
+ * fades and the sketch follows changes in the workload. MyCache uses it to decide whether a new
+ * entry is worth more than the entry it would evict.
+ */
+public class FrequencySketch {
+    private static final int DEPTH = 4;            // Rows, each hashed with its own seed.
+    private static final int MAX_COUNT = 15;       // Largest value of a 4-bit counter.
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;  // Clears each nibble's top bit after a shift.
+
+    private final long[] table;  // DEPTH rows of counters, interleaved.
+    private final int rowMask;   // Counters per row minus one.
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Constructor for FrequencySketch.
+     *
+     * @param expectedEntries The number of entries the cache holds; sizes the sketch and sample
+     */
+    public FrequencySketch(int expectedEntries) {
+        int counters = Integer.highestOneBit(Math.max(16, expectedEntries) - 1) << 1;  // Power of two >= entries.
+        this.table = new long[Math.max(1, counters * DEPTH / 16)];
+        this.rowMask = counters - 1;
+        this.sampleSize = Math.max(10, 10 * expectedEntries);
+    }
+
+    /**
+     * Returns the counter index in the table for a hash in a given row.
+     */
+    private int counterIndex(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        int slot = (int) (h >>> 32) & rowMask;
+        return slot * DEPTH + row;  // Interleave rows so one key's counters share a cache line.
+    }
+
+    private int counter(int index) {
+        return (int) (table[index >>> 4] >>> ((index & 15) << 2)) & 0xF;
+    }
+
+    /**
+     * Records one occurrence of a key.
+     *
+     * @param hash The key's hash code
+     */
+    public void increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = counterIndex(hash, row);
+            if (counter(index) < MAX_COUNT) {
+                table[index >>> 4] += 1L << ((index & 15) << 2);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns the estimated number of recent occurrences of a key, at most 15.
+     *
+     * @param hash The key's hash code
+     * @return The estimated frequency
+     */
+    public int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counter(counterIndex(hash, row)));
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves every counter so that past popularity ages out.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+}
@@ -1,21 +1,41 @@
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 
 /**
  * GLLIterator is a generic iterator class that allows iteration through the elements of a GenericList
  * from head to tail. It implements the Iterator<T> interface and provides the logic to traverse the list.
+ * An iterator created for a list is fail-fast: if the list is structurally modified after the
+ * iterator was created, next throws a ConcurrentModificationException instead of skipping or
+ * repeating elements.
  *
  * @param <T> The type of the data stored in the GenericList.
  */
 public class GLLIterator<T> implements Iterator<T> {
     private GenericList.Node<T> current;  // The current node being iterated over.
+    private final GenericList<T> list;     // The list being iterated, or null if not checked.
+    private final int expectedModCount;
 
     /**
-     * Constructor to initialize the iterator with the head of the list.
+     * Constructor to initialize the iterator with the head of the list. Modifications of the
+     * list are not detected.
      * 
      * @param head The head of the list to start iterating from.
      */
     public GLLIterator(GenericList.Node<T> head) {
         current = head;  // Set the current node to the head of the list.
+        list = null;
+        expectedModCount = 0;
+    }
+
+    /**
+     * Constructor to initialize a fail-fast iterator over a list.
+     * 
+     * @param list The list to iterate over.
+     */
+    public GLLIterator(GenericList<T> list) {
+        current = list.getHead();
+        this.list = list;
+        expectedModCount = list.getModCount();
     }
 
     /**
@@ -33,9 +53,13 @@ public class GLLIterator<T> implements Iterator<T> {
      * 
      * @return The data of the current node.
      * @throws java.util.NoSuchElementException if no more elements exist.
+     * @throws ConcurrentModificationException if the list was modified since the iterator was created.
      */
     @Override
     public T next() {
+        if (list != null && list.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
         if (!hasNext()) {
             throw new java.util.NoSuchElementException();  // Throw exception if no more elements.
         }
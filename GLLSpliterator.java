@@ -0,0 +1,109 @@
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * GLLSpliterator splits the elements of a linked GenericList for parallel streams. A linked list
+ * can't be cut in the middle without walking to it, so, like java.util.LinkedList, each split
+ * copies the next batch of elements into an array and hands that off; the batches grow by 1024
+ * elements per split so large lists are split into a reasonable number of pieces. The number of
+ * elements is always exact. It is fail-fast like GLLIterator.
+ *
+ * @param <T> The type of the data stored in the GenericList.
+ */
+public class GLLSpliterator<T> implements Spliterator<T> {
+    private static final int BATCH_UNIT = 1 << 10;  // Batch size increment per split.
+    private static final int MAX_BATCH = 1 << 25;   // Largest batch copied by one split.
+
+    private final GenericList<T> list;
+    private final int expectedModCount;
+    private GenericList.Node<T> current;  // Next node to hand out.
+    private long est;    // Number of elements left.
+    private int batch;   // Size of the last batch.
+
+    /**
+     * Constructor for GLLSpliterator.
+     *
+     * @param list The list to traverse.
+     */
+    public GLLSpliterator(GenericList<T> list) {
+        this.list = list;
+        this.expectedModCount = list.getModCount();
+        this.current = list.getHead();
+        this.est = list.getLength();
+    }
+
+    /**
+     * Copies the next batch of elements into an array spliterator.
+     *
+     * @return A spliterator over the batch, or null if there is at most one element left.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        if (current == null || est <= 1) {
+            return null;
+        }
+        int n = (int) Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), est);
+        Object[] elements = new Object[n];
+        int j = 0;
+        for (; j < n && current != null; j++) {
+            elements[j] = current.data;
+            current = current.next;
+        }
+        batch = j;
+        est -= j;
+        return Spliterators.spliterator(elements, 0, j, Spliterator.ORDERED);
+    }
+
+    /**
+     * Passes the next element to the action.
+     *
+     * @param action The action.
+     * @return false if there were no elements left.
+     * @throws ConcurrentModificationException if the list was structurally modified.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (current == null) {
+            return false;
+        }
+        T data = current.data;
+        current = current.next;
+        est--;
+        action.accept(data);
+        if (list.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    /**
+     * Passes every remaining element to the action, checking for modifications once at the end.
+     *
+     * @param action The action.
+     * @throws ConcurrentModificationException if the list was structurally modified.
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        GenericList.Node<T> node = current;
+        current = null;
+        est = 0;
+        for (; node != null; node = node.next) {
+            action.accept(node.data);
+        }
+        if (list.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return est;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+}
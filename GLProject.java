@@ -67,7 +67,7 @@
      private static void demonstrateMyHashMap() {
          System.out.println("\n--- MyHashMap Demonstration ---");
          
-         MyHashMap<Integer> map = new MyHashMap<>("One", 1);
+         MyHashMap<String, Integer> map = new MyHashMap<>("One", 1);
          map.put("Two", 2);
          map.put("Three", 3);
          
@@ -170,4 +170,167 @@ public class GQTest {
         queue.dequeue();  // Empty the queue.
         queue.print();  // Should print "Empty List".
     }
+
+    @Test
+    void testRemoveLast() {
+        // Test that removeLast takes from the tail and keeps both ends consistent.
+        GenericQueue<String> queue = new GenericQueue<>("a");
+        queue.add("b");
+        queue.add("c");
+        assertEquals("c", queue.removeLast());
+        assertEquals(2, queue.getLength());
+        queue.add("d");  // Appending after removeLast must link to the new tail.
+        assertEquals("a", queue.dequeue());
+        assertEquals("d", queue.removeLast());
+        assertEquals("b", queue.removeLast());
+        assertNull(queue.removeLast());
+        assertNull(queue.dequeue());
+        assertEquals(0, queue.getLength());
+        queue.add("e");
+        assertEquals("e", queue.get(0));
+    }
+
+    @Test
+    void testDescendingIteratorIsLazy() {
+        // Test that the descending iterator sees the queue as it is when next() is called,
+        // rather than a copy taken when it was created.
+        GenericQueue<Integer> queue = new GenericQueue<>(1);
+        queue.add(2);
+        queue.add(3);
+        Iterator<Integer> descIterator = queue.descendingIterator();
+        queue.set(1, 20);
+        assertEquals(3, descIterator.next());
+        assertEquals(20, descIterator.next());
+        assertEquals(1, descIterator.next());
+        assertFalse(descIterator.hasNext());
+    }
+
+    @Test
+    void testDescendingIteratorAfterDequeue() {
+        // Test that dequeuing from the front leaves the backward links intact.
+        GenericQueue<Integer> queue = new GenericQueue<>(1);
+        for (int i = 2; i <= 5; i++) {
+            queue.enqueue(i);
+        }
+        queue.dequeue();
+        queue.dequeue();
+        int expected = 5;
+        Iterator<Integer> descIterator = queue.descendingIterator();
+        while (descIterator.hasNext()) {
+            assertEquals(expected--, descIterator.next());
+        }
+        assertEquals(2, expected);
+    }
+
+    @Test
+    void testEnqueueAll() {
+        // Test adding a collection and an array in one call.
+        GenericQueue<Integer> queue = new GenericQueue<>(1);
+        queue.enqueueAll(java.util.Arrays.asList(2, 3));
+        queue.enqueueAll(4, 5);
+        queue.enqueueAll(new ArrayList<Integer>());  // Nothing to add.
+        assertEquals(5, queue.getLength());
+        assertEquals(5, queue.removeLast());
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, queue.dequeue());
+        }
+        assertNull(queue.dequeue());
+    }
+
+    @Test
+    void testBatchDequeue() {
+        // Test removing several elements at once, including asking for more than there are.
+        GenericQueue<Integer> queue = new GenericQueue<>(1);
+        queue.enqueueAll(2, 3, 4, 5);
+        ArrayList<Integer> taken = new ArrayList<>();
+        assertEquals(3, queue.dequeue(3, taken::add));
+        assertEquals(java.util.Arrays.asList(1, 2, 3), taken);
+        assertEquals(2, queue.getLength());
+        assertEquals(4, queue.get(0));
+        assertEquals(2, queue.dequeue(10, taken::add));
+        assertEquals(0, queue.getLength());
+        assertEquals(0, queue.dequeue(10, taken::add));
+        queue.enqueue(6);  // The emptied queue must still accept elements.
+        assertEquals(6, queue.dequeue());
+    }
+
+    @Test
+    void testDrainTo() {
+        // Test splicing one queue onto the end of another.
+        GenericQueue<String> source = new GenericQueue<>("c");
+        source.enqueue("d");
+        GenericQueue<String> target = new GenericQueue<>("a");
+        target.enqueue("b");
+        assertEquals(2, source.drainTo(target));
+        assertEquals(0, source.getLength());
+        assertNull(source.dequeue());
+        assertEquals(4, target.getLength());
+        assertEquals(java.util.Arrays.asList("a", "b", "c", "d"), target.dumpList());
+        Iterator<String> descIterator = target.descendingIterator();
+        assertEquals("d", descIterator.next());
+        assertEquals("c", descIterator.next());
+        source.enqueue("e");  // The drained queue is reusable.
+        assertEquals("e", source.get(0));
+        assertThrows(IllegalArgumentException.class, () -> target.drainTo(target));
+    }
+
+    @Test
+    void testIteratorsAreFailFast() {
+        // Test that adding or removing during iteration is detected in both directions.
+        GenericQueue<Integer> queue = new GenericQueue<>(1);
+        queue.enqueue(2);
+        Iterator<Integer> iterator = queue.iterator();
+        assertEquals(1, iterator.next());
+        queue.set(1, 22);  // Not a structural change.
+        assertEquals(22, iterator.next());
+        queue.enqueue(3);
+        assertThrows(java.util.ConcurrentModificationException.class, iterator::next);
+
+        Iterator<Integer> descIterator = queue.descendingIterator();
+        queue.dequeue();
+        assertThrows(java.util.ConcurrentModificationException.class, descIterator::next);
+    }
+
+    @Test
+    void testStreams() {
+        // Test sequential and parallel streams, which split the queue into batches.
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        for (int i = 0; i < 100000; i++) {
+            queue.enqueue(i);
+        }
+        long expected = 99999L * 100000 / 2;
+        assertEquals(expected, queue.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(expected, queue.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(queue.dumpList(), queue.parallelStream().collect(java.util.stream.Collectors.toList()));
+        java.util.Spliterator<Integer> spliterator = queue.spliterator();
+        java.util.Spliterator<Integer> batch = spliterator.trySplit();
+        assertEquals(1024, batch.estimateSize());
+        assertEquals(100000 - 1024, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(java.util.Spliterator.SUBSIZED));
+    }
+
+    @Test
+    void testCursorCaching() {
+        // Test indexed access with cursor caching in both directions and after modifications.
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        queue.setCursorCaching(true);
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, queue.get(i));
+        }
+        for (int i = 999; i >= 0; i -= 3) {
+            assertEquals(i, queue.set(i, -i));
+        }
+        assertEquals(-999, queue.get(999));
+        queue.dequeue();  // Shifts every index, so the cached cursor must not be used.
+        assertEquals(1, queue.get(0));
+        assertEquals(-3, queue.get(2));
+        queue.removeLast();
+        assertEquals(998, queue.getLength());
+        assertEquals(998, queue.get(997));
+        queue.setCursorCaching(false);
+        assertEquals(500, queue.get(499));
+    }
 }
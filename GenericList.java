@@ -1,5 +1,9 @@
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This abstract class provides the foundation for a generic linked list. It implements the Iterable<T>
@@ -12,21 +16,26 @@ import java.util.Iterator;
 public abstract class GenericList<T> implements Iterable<T> {
     private Node<T> head;  // The head (first node) of the linked list.
     private int length;    // The length (number of elements) in the linked list.
+    private int modCount;  // Number of structural changes, for fail-fast iterators.
+    private IndexCursor<T> indexCursor;  // Last node reached by get or set, if cursor caching is on.
 
     /**
      * The inner Node class is used to store the data and code for each element of the list. 
-     * Each node also points to the next node in the linked list.
+     * Each node also points to the next and previous nodes in the linked list, so the list can
+     * be walked backwards and nodes can be unlinked without searching for their predecessor.
      */
     protected static class Node<T> {
         T data;  // The data stored in the node.
         int code;  // Optional code value associated with the data.
         Node<T> next;  // Reference to the next node in the list.
+        Node<T> prev;  // Reference to the previous node in the list.
 
         // Constructor to initialize node with data and default code.
         Node(T data) {
             this.data = data;
             this.code = 0;  // Default code value.
             this.next = null;
+            this.prev = null;
         }
 
         // Constructor to initialize node with data and specified code.
@@ -34,9 +43,60 @@ public abstract class GenericList<T> implements Iterable<T> {
             this.data = data;
             this.code = code;
             this.next = null;
+            this.prev = null;
         }
     }
 
+    /**
+     * IndexCursor remembers the last node reached by index, so that the next get or set near it
+     * can walk from there instead of from the head. It is only valid while the list has not
+     * been structurally modified.
+     */
+    private static final class IndexCursor<T> {
+        Node<T> node;
+        int index;
+        int modCount;
+    }
+
+    /**
+     * Turns cursor caching on or off. With it on, get and set remember the node they reached, so
+     * a loop over consecutive indexes (in either direction) costs O(1) per step instead of a walk
+     * from the head each time. It is off by default so that lists that are never indexed, like
+     * MyHashMap's buckets, don't pay for it.
+     * 
+     * @param enabled true to cache the last position reached by index.
+     */
+    public void setCursorCaching(boolean enabled) {
+        indexCursor = enabled ? new IndexCursor<>() : null;
+    }
+
+    /**
+     * Returns the node at a valid index, walking from the head or from the cached cursor,
+     * whichever is closer.
+     */
+    private Node<T> nodeAt(int index) {
+        Node<T> current = head;
+        int position = 0;
+        IndexCursor<T> cursor = indexCursor;
+        if (cursor != null && cursor.node != null && cursor.modCount == modCount
+                && Math.abs(index - cursor.index) < index) {
+            current = cursor.node;
+            position = cursor.index;
+        }
+        for (; position < index; position++) {
+            current = current.next;  // Traverse the list to the specified index.
+        }
+        for (; position > index; position--) {
+            current = current.prev;
+        }
+        if (cursor != null) {
+            cursor.node = current;
+            cursor.index = index;
+            cursor.modCount = modCount;
+        }
+        return current;
+    }
+
     /**
      * Prints the entire list. If the list is empty, it prints "Empty List".
      */
@@ -72,7 +132,8 @@ public abstract class GenericList<T> implements Iterable<T> {
     }
 
     /**
-     * Gets the data at the specified index.
+     * Gets the data at the specified index. This walks the list, so it is O(n) unless cursor
+     * caching is on and the index is near the last one used.
      * 
      * @param index The index of the element to retrieve.
      * @return The data at the specified index or null if index is out of bounds.
@@ -81,11 +142,7 @@ public abstract class GenericList<T> implements Iterable<T> {
         if (index < 0 || index >= length) {
             return null;  // Return null if the index is invalid.
         }
-        Node<T> current = head;
-        for (int i = 0; i < index; i++) {
-            current = current.next;  // Traverse the list to the specified index.
-        }
-        return current.data;  // Return the data at the specified node.
+        return nodeAt(index).data;  // Return the data at the specified node.
     }
 
     /**
@@ -100,10 +157,7 @@ public abstract class GenericList<T> implements Iterable<T> {
         if (index < 0 || index >= length) {
             return null;  // Return null if index is invalid.
         }
-        Node<T> current = head;
-        for (int i = 0; i < index; i++) {
-            current = current.next;  // Traverse to the node at the index.
-        }
+        Node<T> current = nodeAt(index);  // Traverse to the node at the index.
         T oldValue = current.data;  // Store the old value.
         current.data = element;  // Replace with the new value.
         return oldValue;  // Return the old value.
@@ -111,13 +165,61 @@ public abstract class GenericList<T> implements Iterable<T> {
 
     // Getters and setters for private fields.
     public int getLength() { return length; }
-    protected void setLength(int length) { this.length = length; }
+    protected void setLength(int length) { this.length = length; modCount++; }  // Every structural change sets the length.
+    protected void structureChanged() { modCount++; }  // For changes that reorder elements without changing the length.
+    protected int getModCount() { return modCount; }
     protected Node<T> getHead() { return head; }
     protected void setHead(Node<T> head) { this.head = head; }
 
+    /**
+     * Returns the last node of the list. This walks from the head; subclasses that keep a tail
+     * reference override it to return it directly.
+     * 
+     * @return The last node, or null if the list is empty.
+     */
+    protected Node<T> getTail() {
+        Node<T> current = head;
+        if (current == null) {
+            return null;
+        }
+        while (current.next != null) {
+            current = current.next;
+        }
+        return current;
+    }
+
     // Abstract methods for iterator implementation.
     public abstract Iterator<T> descendingIterator();
 
     @Override
     public abstract Iterator<T> iterator();
+
+    /**
+     * Returns a spliterator over the list that knows its size. Linked lists override this with
+     * one that can be split into batches for parallel streams.
+     * 
+     * @return A spliterator over the list elements.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), getLength(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential stream of the list elements, in order.
+     * 
+     * @return A stream over the list elements.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the list elements.
+     * 
+     * @return A parallel stream over the list elements.
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
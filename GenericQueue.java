@@ -1,14 +1,29 @@
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import javax.management.ObjectName;
 
 /**
  * GenericQueue is a generic queue implementation that extends GenericList<T>. It provides 
- * queue-specific methods for enqueuing and dequeuing elements. The queue uses a singly linked 
- * list to store its elements.
+ * queue-specific methods for enqueuing and dequeuing elements. The queue uses a doubly linked 
+ * list to store its elements, so it can be iterated backwards and its last element removed in O(1).
+ *
+ * enableMetrics() makes the queue count what is enqueued and dequeued through its queue methods
+ * and track its deepest point, readable through stats() or an MBean.
  *
  * @param <T> The type of the data stored in the queue.
  */
 public class GenericQueue<T> extends GenericList<T> {
     private Node<T> tail;  // The tail (last node) of the linked list.
+    private QueueMetrics metrics;  // Null until metrics are enabled.
+
+    /**
+     * Constructor to initialize an empty queue.
+     */
+    public GenericQueue() {
+        setLength(0);  // No head or tail until the first element is added.
+    }
 
     /**
      * Constructor to initialize the queue with a single element.
@@ -22,6 +37,19 @@ public class GenericQueue<T> extends GenericList<T> {
         setLength(1);  // Set the length of the queue to 1.
     }
 
+    /**
+     * Constructor to initialize the queue with a single element and its code.
+     * 
+     * @param data The data for the first node in the queue.
+     * @param code The code to associate with the data.
+     */
+    public GenericQueue(T data, int code) {
+        Node<T> newNode = new Node<>(data, code);  // Create a new node with the code.
+        setHead(newNode);  // Set the new node as the head.
+        tail = newNode;  // Set the new node as the tail.
+        setLength(1);  // Set the length of the queue to 1.
+    }
+
     /**
      * Adds a new element to the back of the queue.
      * 
@@ -35,6 +63,7 @@ public class GenericQueue<T> extends GenericList<T> {
             tail = newNode;
         } else {
             tail.next = newNode;  // Otherwise, append to the tail.
+            newNode.prev = tail;
             tail = newNode;
         }
         setLength(getLength() + 1);  // Increment the length.
@@ -53,11 +82,54 @@ public class GenericQueue<T> extends GenericList<T> {
             tail = newNode;
         } else {
             tail.next = newNode;  // Otherwise, append to the tail.
+            newNode.prev = tail;
             tail = newNode;
         }
         setLength(getLength() + 1);  // Increment the length.
     }
 
+    /**
+     * Links an existing node onto the back of the queue without allocating. The node keeps its
+     * data and code; its next pointer is cleared.
+     * 
+     * @param node The node to append.
+     */
+    protected void addNode(Node<T> node) {
+        node.next = null;  // The appended node always becomes the new tail.
+        node.prev = tail;
+        if (getHead() == null) {
+            setHead(node);
+            tail = node;
+        } else {
+            tail.next = node;
+            tail = node;
+        }
+        setLength(getLength() + 1);  // Increment the length.
+    }
+
+    /**
+     * Unlinks a node of this queue in O(1) using its prev and next links. The caller must make
+     * sure the node belongs to this queue. The node keeps its next link, so a reader that is
+     * standing on it (such as a MyHashMap snapshot iterator) can still carry on to the rest of
+     * the chain.
+     * 
+     * @param node The node to remove.
+     */
+    protected void unlink(Node<T> node) {
+        if (node.prev == null) {
+            setHead(node.next);  // Removing the head.
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;  // Removing the tail.
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        setLength(getLength() - 1);  // Decrement the length.
+    }
+
     /**
      * Removes and returns the first element of the queue.
      * 
@@ -73,10 +145,42 @@ public class GenericQueue<T> extends GenericList<T> {
         setLength(getLength() - 1);  // Decrement the length.
         if (getHead() == null) {
             tail = null;  // If the queue becomes empty, set tail to null.
+        } else {
+            getHead().prev = null;  // The new head has no predecessor.
+        }
+        return data;  // Return the data of the removed node.
+    }
+
+    /**
+     * Removes and returns the last element of the queue in O(1).
+     * 
+     * @return The data of the last element or null if the queue is empty.
+     */
+    public T removeLast() {
+        if (tail == null) {
+            return null;  // Return null if the queue is empty.
+        }
+        T data = tail.data;  // Get the data of the tail node.
+        tail = tail.prev;  // Move the tail back one node.
+        setLength(getLength() - 1);  // Decrement the length.
+        if (tail == null) {
+            setHead(null);  // If the queue becomes empty, clear the head too.
+        } else {
+            tail.next = null;  // The new tail has no successor.
         }
         return data;  // Return the data of the removed node.
     }
 
+    /**
+     * Returns the last node of the queue.
+     * 
+     * @return The tail node, or null if the queue is empty.
+     */
+    @Override
+    protected Node<T> getTail() {
+        return tail;
+    }
+
     /**
      * Adds an element to the back of the queue.
      * 
@@ -84,6 +188,9 @@ public class GenericQueue<T> extends GenericList<T> {
      */
     public void enqueue(T data) {
         add(data);  // Enqueue by adding to the back of the queue.
+        if (metrics != null) {
+            metrics.enqueued(1, getLength());
+        }
     }
 
     /**
@@ -92,21 +199,207 @@ public class GenericQueue<T> extends GenericList<T> {
      * @return The data of the dequeued element.
      */
     public T dequeue() {
+        if (metrics != null && getHead() != null) {
+            metrics.dequeued(1);
+        }
         return delete();  // Dequeue by removing from the front of the queue.
     }
 
     /**
-     * Returns an iterator that iterates over the queue from head to tail.
+     * Adds every element of a collection to the back of the queue, in iteration order. The new
+     * nodes are linked into a chain first and attached to the tail once.
+     * 
+     * @param data The elements to enqueue.
+     */
+    public void enqueueAll(Collection<? extends T> data) {
+        Node<T> first = null;
+        Node<T> last = null;
+        int count = 0;
+        for (T item : data) {
+            Node<T> newNode = new Node<>(item);
+            if (first == null) {
+                first = newNode;
+            } else {
+                last.next = newNode;
+                newNode.prev = last;
+            }
+            last = newNode;
+            count++;
+        }
+        appendCounted(first, last, count);
+    }
+
+    /**
+     * Adds every element of an array to the back of the queue, in index order. The new nodes
+     * are linked into a chain first and attached to the tail once.
+     * 
+     * @param data The elements to enqueue.
+     */
+    @SafeVarargs
+    public final void enqueueAll(T... data) {
+        if (data.length == 0) {
+            return;
+        }
+        Node<T> first = new Node<>(data[0]);
+        Node<T> last = first;
+        for (int i = 1; i < data.length; i++) {
+            Node<T> newNode = new Node<>(data[i]);
+            last.next = newNode;
+            newNode.prev = last;
+            last = newNode;
+        }
+        appendCounted(first, last, data.length);
+    }
+
+    /**
+     * Removes up to max elements from the front of the queue and passes them, in order, to the
+     * consumer. The removed nodes are cut off the queue in one step before the consumer runs,
+     * so the consumer may safely enqueue into this queue.
+     * 
+     * @param max The largest number of elements to remove.
+     * @param consumer Receives each removed element.
+     * @return The number of elements removed.
+     */
+    public int dequeue(int max, Consumer<? super T> consumer) {
+        Node<T> first = getHead();
+        if (max <= 0 || first == null) {
+            return 0;
+        }
+        Node<T> last = first;
+        int count = 1;
+        while (count < max && last.next != null) {
+            last = last.next;
+            count++;
+        }
+        setHead(last.next);  // Cut the batch off the front of the queue.
+        if (getHead() == null) {
+            tail = null;
+        } else {
+            getHead().prev = null;
+        }
+        last.next = null;
+        setLength(getLength() - count);
+        if (metrics != null) {
+            metrics.dequeued(count);
+        }
+        for (Node<T> node = first; node != null; node = node.next) {
+            consumer.accept(node.data);
+        }
+        return count;
+    }
+
+    /**
+     * Moves every element of this queue to the back of another queue in O(1) by splicing this
+     * queue's chain of nodes onto the other queue's tail. This queue is left empty.
+     * 
+     * @param target The queue to move the elements to.
+     * @return The number of elements moved.
+     * @throws IllegalArgumentException if target is this queue.
+     */
+    public int drainTo(GenericQueue<T> target) {
+        if (target == this) {
+            throw new IllegalArgumentException("Cannot drain a queue into itself");
+        }
+        int count = getLength();
+        target.appendCounted(getHead(), tail, count);
+        setHead(null);
+        tail = null;
+        setLength(0);
+        if (metrics != null) {
+            metrics.dequeued(count);
+        }
+        return count;
+    }
+
+    /**
+     * Appends a chain of nodes and counts it as enqueued.
+     */
+    private void appendCounted(Node<T> first, Node<T> last, int count) {
+        appendChain(first, last, count);
+        if (metrics != null && first != null) {
+            metrics.enqueued(count, getLength());
+        }
+    }
+
+    /**
+     * Attaches an already linked chain of nodes to the tail and updates the length once.
+     * Subclasses that index their nodes override this to link the nodes one by one.
+     * 
+     * @param first The first node of the chain, or null for an empty chain.
+     * @param last The last node of the chain.
+     * @param count The number of nodes in the chain.
+     */
+    protected void appendChain(Node<T> first, Node<T> last, int count) {
+        if (first == null) {
+            return;
+        }
+        first.prev = tail;
+        if (getHead() == null) {
+            setHead(first);
+        } else {
+            tail.next = first;
+        }
+        tail = last;
+        setLength(getLength() + count);
+    }
+
+    /**
+     * Starts counting the elements enqueued and dequeued through enqueue, enqueueAll, dequeue
+     * and drainTo, and tracking the largest length reached. Calling it again keeps the existing
+     * counts.
+     */
+    public void enableMetrics() {
+        if (metrics == null) {
+            metrics = new QueueMetrics();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the queue's statistics.
+     * 
+     * @return The statistics.
+     */
+    public QueueStats stats() {
+        return new QueueStats(metrics, getLength());
+    }
+
+    /**
+     * Enables metrics and registers an MBean for them in the platform MBean server, under the
+     * name datastructures:type=GenericQueue,name="name".
+     * 
+     * @param name Tells this queue apart from others in JMX clients.
+     * @return The name the MBean was registered under, for unregistering it.
+     * @throws IllegalArgumentException if an MBean is already registered under that name.
+     */
+    public ObjectName registerMBean(String name) {
+        enableMetrics();
+        return MBeans.register("GenericQueue", name, QueueStatsMXBean.class, this::stats);
+    }
+
+    /**
+     * Returns a fail-fast iterator that iterates over the queue from head to tail.
      * 
      * @return An iterator over the queue elements.
      */
     @Override
     public Iterator<T> iterator() {
-        return new GLLIterator<>(getHead());
+        return new GLLIterator<>(this);
+    }
+
+    /**
+     * Returns a fail-fast spliterator over the queue that splits off batches of elements, so
+     * parallel streams over a large queue can use several threads.
+     * 
+     * @return A spliterator over the queue elements.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new GLLSpliterator<>(this);
     }
 
     /**
-     * Returns an iterator that iterates over the queue from tail to head.
+     * Returns an iterator that iterates over the queue from tail to head. It follows the prev
+     * links lazily, so creating it is O(1) and nothing is copied.
      * 
      * @return An iterator in reverse order over the queue elements.
      */
@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+
+/**
+ * HMCursor walks the entries of a MyHashMap without allocating anything per entry. Instead of
+ * returning an object for each entry, the cursor itself stands on the current entry and exposes
+ * its key and value, like a flyweight. A hot loop creates one cursor and calls reset() to walk
+ * the map again, so after the first use no allocation happens at all:
+ *
+ *     while (cursor.next()) {
+ *         total += cursor.value();
+ *     }
+ *
+ * The cursor can also change the current value or remove the current entry. Any other structural
+ * change of the map while the cursor is in use makes next(), setValue() and remove() throw a
+ * ConcurrentModificationException.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
+ */
+public class HMCursor<K, V> {
+    private final MyHashMap<K, V> owner;
+    private ArrayList<GenericQueue<MyHashMap.MapEntry<K, V>>> map;
+    private int expectedModCount;
+    private int bucket;  // Bucket of the current entry.
+    private GenericList.Node<MyHashMap.MapEntry<K, V>> current;   // Node the cursor stands on.
+    private GenericList.Node<MyHashMap.MapEntry<K, V>> nextNode;  // Node of the next entry.
+    private int nextBucket;
+
+    /**
+     * Constructor for HMCursor.
+     *
+     * @param owner The map to walk
+     */
+    HMCursor(MyHashMap<K, V> owner) {
+        this.owner = owner;
+        reset();
+    }
+
+    /**
+     * Moves the cursor back before the first entry, so the map can be walked again.
+     */
+    public void reset() {
+        map = owner.table();
+        expectedModCount = owner.modCount();
+        current = null;
+        nextNode = null;
+        nextBucket = -1;
+        moveToNextNonEmptyBucket();
+    }
+
+    private void moveToNextNonEmptyBucket() {
+        while (nextNode == null && ++nextBucket < map.size()) {
+            GenericQueue<MyHashMap.MapEntry<K, V>> queue = map.get(nextBucket);
+            nextNode = queue == null ? null : queue.getHead();
+        }
+    }
+
+    /**
+     * Moves the cursor to the next entry.
+     *
+     * @return true if the cursor is on an entry, false if there are no more
+     * @throws ConcurrentModificationException if the map was structurally modified other than by this cursor
+     */
+    public boolean next() {
+        checkForComodification();
+        current = nextNode;
+        if (current == null) {
+            return false;
+        }
+        bucket = nextBucket;
+        nextNode = current.next;
+        if (nextNode == null) {
+            moveToNextNonEmptyBucket();
+        }
+        return true;
+    }
+
+    private void checkForComodification() {
+        if (owner.modCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private MyHashMap.MapEntry<K, V> entry() {
+        if (current == null) {
+            throw new IllegalStateException("The cursor is not on an entry");
+        }
+        return current.data;
+    }
+
+    /**
+     * Returns the key of the current entry.
+     *
+     * @return The key
+     * @throws IllegalStateException if the cursor is not on an entry
+     */
+    public K key() {
+        return entry().key;
+    }
+
+    /**
+     * Returns the value of the current entry.
+     *
+     * @return The value
+     * @throws IllegalStateException if the cursor is not on an entry
+     */
+    public V value() {
+        return entry().value;
+    }
+
+    /**
+     * Replaces the value of the current entry.
+     *
+     * @param value The new value
+     * @return The old value
+     * @throws IllegalStateException if the cursor is not on an entry
+     * @throws ConcurrentModificationException if the map was structurally modified other than by this cursor
+     */
+    public V setValue(V value) {
+        MyHashMap.MapEntry<K, V> entry = entry();
+        checkForComodification();  // The entry may have been removed from the map.
+        V oldValue = entry.value;
+        owner.updateValue(entry, value);
+        return oldValue;
+    }
+
+    /**
+     * Removes the current entry from the map. The cursor can carry on with next().
+     *
+     * @throws IllegalStateException if the cursor is not on an entry
+     * @throws ConcurrentModificationException if the map was structurally modified other than by this cursor
+     */
+    public void remove() {
+        entry();
+        checkForComodification();  // After a resize the cached bucket index is stale.
+        owner.removeNode(bucket, current);
+        current = null;
+        expectedModCount = owner.modCount();
+    }
+}
@@ -1,37 +1,67 @@
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 
 /**
  * HMIterator class implements the Iterator interface for MyHashMap.
- * It allows iteration over the values stored in the HashMap.
+ * It allows iteration over the values stored in the HashMap by walking each bucket's chain of
+ * nodes directly, so moving from one bucket to the next allocates nothing.
  *
- * @param <T> The type of values stored in the HashMap
+ * A normal iterator reads the live table and is fail-fast: it throws a
+ * ConcurrentModificationException if the map is structurally modified after it was created. A
+ * snapshot iterator copies the bucket heads when it is created and walks the chains from those
+ * heads, so it never throws; MyHashMap keeps those chains intact for it.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
  */
-public class HMIterator<T> implements Iterator<T> {
-    private ArrayList<GenericQueue<MyHashMap.MapEntry<T>>> map;
+public class HMIterator<K, V> implements Iterator<V> {
+    private final MyHashMap<K, V> owner;
+    private final ArrayList<GenericQueue<MyHashMap.MapEntry<K, V>>> map;  // Live buckets, or null in snapshot mode.
+    private final GenericList.Node<MyHashMap.MapEntry<K, V>>[] heads;     // Copied bucket heads in snapshot mode.
+    private final int bucketCount;
+    private final int expectedModCount;
     private int currentBucket;
-    private Iterator<MyHashMap.MapEntry<T>> currentQueueIterator;
+    private GenericList.Node<MyHashMap.MapEntry<K, V>> nextNode;  // Node holding the next value.
 
     /**
      * Constructor for HMIterator.
      *
+     * @param owner The map being iterated
      * @param map The ArrayList of GenericQueues representing the HashMap
+     * @param snapshot true to copy the bucket heads and not check for modifications
      */
-    public HMIterator(ArrayList<GenericQueue<MyHashMap.MapEntry<T>>> map) {
-        this.map = map;
-        this.currentBucket = 0;
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    HMIterator(MyHashMap<K, V> owner, ArrayList<GenericQueue<MyHashMap.MapEntry<K, V>>> map, boolean snapshot) {
+        this.owner = owner;
+        this.bucketCount = map.size();
+        this.expectedModCount = owner.modCount();
+        if (snapshot) {
+            this.map = null;
+            this.heads = new GenericList.Node[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                GenericQueue<MyHashMap.MapEntry<K, V>> bucket = map.get(i);
+                heads[i] = bucket == null ? null : bucket.getHead();
+            }
+        } else {
+            this.map = map;
+            this.heads = null;
+        }
+        this.currentBucket = -1;
         moveToNextNonEmptyBucket();
     }
 
     /**
-     * Moves the iterator to the next non-empty bucket in the HashMap.
+     * Moves the iterator to the head of the next non-empty bucket in the HashMap.
      */
     private void moveToNextNonEmptyBucket() {
-        while (currentBucket < map.size() && (map.get(currentBucket) == null || !map.get(currentBucket).iterator().hasNext())) {
-            currentBucket++;
-        }
-        if (currentBucket < map.size()) {
-            currentQueueIterator = map.get(currentBucket).iterator();
+        while (nextNode == null && ++currentBucket < bucketCount) {
+            if (heads != null) {
+                nextNode = heads[currentBucket];
+            } else {
+                GenericQueue<MyHashMap.MapEntry<K, V>> bucket = map.get(currentBucket);
+                nextNode = bucket == null ? null : bucket.getHead();
+            }
         }
     }
 
@@ -42,7 +72,7 @@ public class HMIterator<T> implements Iterator<T> {
      */
     @Override
     public boolean hasNext() {
-        return currentBucket < map.size();
+        return nextNode != null;
     }
 
     /**
@@ -50,17 +80,32 @@ public class HMIterator<T> implements Iterator<T> {
      *
      * @return The next value
      * @throws java.util.NoSuchElementException if there are no more elements
+     * @throws ConcurrentModificationException if the map was modified since a fail-fast iterator was created
      */
     @Override
-    public T next() {
+    public V next() {
+        return nextEntry().value;
+    }
+
+    /**
+     * Returns the next entry in the iteration; the keys and entries views of MyHashMap use this.
+     *
+     * @return The next entry
+     * @throws java.util.NoSuchElementException if there are no more elements
+     * @throws ConcurrentModificationException if the map was modified since a fail-fast iterator was created
+     */
+    MyHashMap.MapEntry<K, V> nextEntry() {
+        if (heads == null && owner.modCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
         if (!hasNext()) {
             throw new java.util.NoSuchElementException();
         }
-        T value = currentQueueIterator.next().value;
-        if (!currentQueueIterator.hasNext()) {
-            currentBucket++;
+        MyHashMap.MapEntry<K, V> entry = nextNode.data;
+        nextNode = nextNode.next;
+        if (nextNode == null) {
             moveToNextNonEmptyBucket();
         }
-        return value;
+        return entry;
     }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * HMSpliterator splits the values of a MyHashMap for parallel streams. Each spliterator covers a
+ * range of buckets and splits by halving that range, so splitting costs nothing and the halves
+ * can be walked on different threads without sharing state.
+ *
+ * The number of values is exact only before the first split; after that each half estimates half
+ * of its parent, because counting the entries of a bucket range would mean visiting it. Like
+ * HMIterator it is fail-fast: a structural change of the map during traversal throws a
+ * ConcurrentModificationException.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
+ */
+public class HMSpliterator<K, V> implements Spliterator<V> {
+    private final MyHashMap<K, V> owner;
+    private final ArrayList<GenericQueue<MyHashMap.MapEntry<K, V>>> map;
+    private final int expectedModCount;
+    private GenericList.Node<MyHashMap.MapEntry<K, V>> current;  // Next node of the bucket being walked.
+    private int index;   // Next bucket to start.
+    private final int fence;  // One past the last bucket of the range.
+    private long est;    // Size estimate.
+    private boolean sized;    // Whether est is exact.
+
+    /**
+     * Constructor for HMSpliterator.
+     *
+     * @param owner The map being traversed
+     * @param map The ArrayList of GenericQueues representing the HashMap
+     * @param origin The first bucket of the range
+     * @param fence One past the last bucket of the range
+     * @param est The estimated number of values in the range
+     * @param sized Whether est is exact
+     */
+    HMSpliterator(MyHashMap<K, V> owner, ArrayList<GenericQueue<MyHashMap.MapEntry<K, V>>> map,
+                  int origin, int fence, long est, boolean sized) {
+        this.owner = owner;
+        this.map = map;
+        this.expectedModCount = owner.modCount();
+        this.index = origin;
+        this.fence = fence;
+        this.est = est;
+        this.sized = sized;
+    }
+
+    /**
+     * Hands the lower half of the remaining buckets to a new spliterator.
+     *
+     * @return The spliterator for the lower half, or null if the range can't be split
+     */
+    @Override
+    public Spliterator<V> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid || current != null) {
+            return null;
+        }
+        index = mid;
+        est >>>= 1;
+        sized = false;
+        return new HMSpliterator<>(owner, map, lo, mid, est, false);
+    }
+
+    /**
+     * Passes the next value to the action.
+     *
+     * @param action The action
+     * @return false if there were no values left
+     * @throws ConcurrentModificationException if the map was structurally modified
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super V> action) {
+        while (current != null || index < fence) {
+            if (current == null) {
+                GenericQueue<MyHashMap.MapEntry<K, V>> bucket = map.get(index++);
+                current = bucket == null ? null : bucket.getHead();
+                continue;
+            }
+            V value = current.data.value;
+            current = current.next;
+            action.accept(value);
+            if (owner.modCount() != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Passes every remaining value to the action, checking for modifications once at the end.
+     *
+     * @param action The action
+     * @throws ConcurrentModificationException if the map was structurally modified
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super V> action) {
+        GenericList.Node<MyHashMap.MapEntry<K, V>> node = current;
+        for (int i = index; ; i++) {
+            for (; node != null; node = node.next) {
+                action.accept(node.data.value);
+            }
+            if (i >= fence) {
+                break;
+            }
+            GenericQueue<MyHashMap.MapEntry<K, V>> bucket = map.get(i);
+            node = bucket == null ? null : bucket.getHead();
+        }
+        current = null;
+        index = fence;
+        if (owner.modCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return est;
+    }
+
+    @Override
+    public int characteristics() {
+        return sized ? Spliterator.SIZED : 0;
+    }
+}
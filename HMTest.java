@@ -1,6 +1,8 @@
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.Iterator;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HMTest contains JUnit tests for the MyHashMap class. It tests various functionalities
@@ -11,7 +13,7 @@ public class HMTest {
     @Test
     void testConstructor() {
         // Test the constructor to verify that the hash map is initialized with the first key-value pair.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 1);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 1);
         assertEquals(1, map.size());  // Ensure size is correct after initialization.
         assertTrue(map.contains("key1"));  // Verify the key exists in the map.
     }
@@ -19,7 +21,7 @@ public class HMTest {
     @Test
     void testPut() {
         // Test the put method to add key-value pairs to the hash map.
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         map.put("key3", "value3");
         assertEquals(3, map.size());  // Verify the size of the map after additions.
@@ -30,7 +32,7 @@ public class HMTest {
     @Test
     void testPutWithCollision() {
         // Test the put method when adding keys that hash to the same index (causing a collision).
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 1);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 1);
         map.put("key11", 11);  // Force a collision (both keys hash to the same index).
         assertEquals(2, map.size());  // Verify size after handling the collision.
         assertEquals(1, map.get("key1"));  // Check the value for "key1".
@@ -40,7 +42,7 @@ public class HMTest {
     @Test
     void testContains() {
         // Test the contains method to check if a key is present in the hash map.
-        MyHashMap<Double> map = new MyHashMap<>("key1", 1.0);
+        MyHashMap<String, Double> map = new MyHashMap<>("key1", 1.0);
         map.put("key2", 2.0);
         assertTrue(map.contains("key1"));  // "key1" should be present.
         assertTrue(map.contains("key2"));  // "key2" should be present.
@@ -50,7 +52,7 @@ public class HMTest {
     @Test
     void testGet() {
         // Test the get method to retrieve values by key.
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         assertEquals("value1", map.get("key1"));  // Verify the value for "key1".
         assertEquals("value2", map.get("key2"));  // Verify the value for "key2".
@@ -60,7 +62,7 @@ public class HMTest {
     @Test
     void testSize() {
         // Test the size method to ensure it returns the correct number of key-value pairs.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 1);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 1);
         assertEquals(1, map.size());  // Verify the initial size.
         map.put("key2", 2);
         map.put("key3", 3);
@@ -70,11 +72,11 @@ public class HMTest {
     @Test
     void testIsEmpty() {
         // Test the isEmpty method to check if the hash map is empty.
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         assertFalse(map.isEmpty());  // Map should not be empty after initialization.
         
         // Create an empty map to test the true case for isEmpty().
-        MyHashMap<String> emptyMap = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> emptyMap = new MyHashMap<>("key1", "value1");
         emptyMap.get("key1");  // Remove the only element (due to how get works).
         assertFalse(emptyMap.isEmpty());  // Map is not empty even though the only element is "used".
     }
@@ -82,7 +84,7 @@ public class HMTest {
     @Test
     void testReplace() {
         // Test the replace method to replace an existing value for a given key.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 1);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 1);
         map.put("key2", 2);
         assertEquals(1, map.replace("key1", 11));  // Replace value for "key1" and check old value.
         assertEquals(11, map.get("key1"));  // Verify the new value for "key1".
@@ -92,7 +94,7 @@ public class HMTest {
     @Test
     void testIterator() {
         // Test the iterator to ensure it correctly iterates over the values in the hash map.
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.put("key2", "value2");
         map.put("key3", "value3");
         Iterator<String> iterator = map.iterator();
@@ -108,7 +110,7 @@ public class HMTest {
     @Test
     void testForEachLoop() {
         // Test the for-each loop to ensure it works correctly with the hash map.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 1);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 1);
         map.put("key2", 2);
         map.put("key3", 3);
         int sum = 0;
@@ -121,7 +123,7 @@ public class HMTest {
     @Test
     public void testPutAndGet() {
         // Test the put and get methods together for correctness.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 10);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 10);
         map.put("key2", 20);
         map.put("key3", 30);
 
@@ -134,7 +136,7 @@ public class HMTest {
     @Test
     public void testHashMapSize() {
         // Test the size method to check the correct number of elements in the hash map.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 10);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 10);
         map.put("key2", 20);
         map.put("key3", 30);
 
@@ -144,7 +146,7 @@ public class HMTest {
     @Test
     public void testCollisionHandling() {
         // Test that the hash map handles collisions correctly by adding keys that hash to the same index.
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 10);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 10);
         map.put("key2", 20);
 
         // Simulate a collision by adding a key that hashes to the same index.
@@ -156,14 +158,14 @@ public class HMTest {
 
     @Test
     void testPutNullValue() {
-        MyHashMap<String> map = new MyHashMap<>("key1", null);
+        MyHashMap<String, String> map = new MyHashMap<>("key1", null);
         assertTrue(map.contains("key1"));  // Ensure the map contains the key.
         assertNull(map.get("key1"));  // Verify that the value for the key is null.
     }
 
     @Test
     void testKeyRemovalBehavior() {
-        MyHashMap<String> map = new MyHashMap<>("key1", "value1");
+        MyHashMap<String, String> map = new MyHashMap<>("key1", "value1");
         map.replace("key1", null);  // Simulate removal by replacing with null.
         assertNull(map.get("key1"));  // Ensure the key no longer returns a value.
         assertTrue(map.contains("key1"));  // Ensure key is not considered "contained" in the map.
@@ -171,7 +173,7 @@ public class HMTest {
     
     @Test
     void testMultipleCollisions() {
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 10);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 10);
         map.put("key2", 20);  // Simulate a collision.
         map.put("key3", 30);  // Another collision at the same index.
         
@@ -182,9 +184,877 @@ public class HMTest {
 
     @Test
     void testPutOverwriteExistingKey() {
-        MyHashMap<Integer> map = new MyHashMap<>("key1", 10);
+        MyHashMap<String, Integer> map = new MyHashMap<>("key1", 10);
         map.put("key1", 20);  // Overwrite the value of "key1".
         assertEquals(20, (int) map.get("key1"));  // Ensure the value was updated.
     }
 
+    @Test
+    void testGrowsPastLoadFactor() {
+        // Test that the table doubles as entries are added and every key is still reachable.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        int initialCapacity = map.capacity();
+        for (int i = 1; i < 10000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(10000, map.size());
+        assertTrue(map.capacity() > initialCapacity);  // The table must have grown.
+        assertEquals(0, Integer.bitCount(map.capacity()) - 1);  // Capacity stays a power of two.
+        assertTrue(map.size() <= map.capacity() * 0.75);  // Load factor is respected.
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, (int) map.get("key" + i));
+        }
+    }
+
+    @Test
+    void testIteratorAfterResize() {
+        // Test that iteration visits every value exactly once after the table has been resized.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 1; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        long sum = 0;
+        int count = 0;
+        for (int value : map) {
+            sum += value;
+            count++;
+        }
+        assertEquals(1000, count);
+        assertEquals(999 * 1000 / 2, sum);
+    }
+
+    @Test
+    void testLookupsDoNotAllocate() {
+        // Test that get and contains allocate nothing, hits or misses.
+        String[] keys = new String[1000];
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+            map.put(keys[i], i);
+        }
+        String missing = "missing";
+
+        long[] checksum = new long[1];
+        long allocated = allocatedBy(() -> {
+            for (String key : keys) {
+                checksum[0] += map.get(key);
+                if (map.contains(key) && !map.contains(missing) && map.get(missing) == null) {
+                    checksum[0]++;
+                }
+            }
+        });
+
+        assertTrue(checksum[0] > 0);
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    void testUpdatesDoNotAllocate() {
+        // Test that put and replace of existing keys allocate nothing, even when the value changes.
+        String[] keys = new String[1000];
+        Integer[] values = new Integer[1000];
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+            values[i] = i + 1000;  // Boxed up front, outside the measured section.
+            map.put(keys[i], i);
+        }
+
+        long allocated = allocatedBy(() -> {
+            for (int i = 0; i < keys.length; i++) {
+                map.put(keys[i], values[i]);
+                map.replace(keys[i], values[(i + 1) % values.length]);
+            }
+        });
+
+        assertEquals(0, allocated);
+        assertEquals(1000, map.size());
+        assertEquals(1001, (int) map.get("key0"));
+    }
+
+    /**
+     * Runs an action a few times to warm it up, then once more while counting the bytes this
+     * thread allocates, using the per-thread counter of the HotSpot ThreadMXBean. The test is
+     * skipped on JVMs that don't have that counter.
+     */
+    private static long allocatedBy(Runnable action) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        org.junit.jupiter.api.Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        org.junit.jupiter.api.Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        for (int round = 0; round < 3; round++) {  // Warm up so class loading is not counted.
+            action.run();
+        }
+        long overhead = threads.getThreadAllocatedBytes(threadId);
+        overhead = threads.getThreadAllocatedBytes(threadId) - overhead;  // Cost of the counter itself.
+        long before = threads.getThreadAllocatedBytes(threadId);
+        action.run();
+        return threads.getThreadAllocatedBytes(threadId) - before - overhead;
+    }
+
+    @Test
+    void testCompoundKeys() {
+        // Test a non-String key type that relies on its own equals and hashCode.
+        MyHashMap<PointKey, String> map = new MyHashMap<>(new PointKey(1, 2), "a");
+        map.put(new PointKey(2, 1), "b");
+        assertEquals("a", map.get(new PointKey(1, 2)));  // Equal but not the same object.
+        assertEquals("b", map.get(new PointKey(2, 1)));
+        assertNull(map.get(new PointKey(1, 1)));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testIdentityStrategy() {
+        // Test that the identity strategy keeps equal but distinct keys apart.
+        PointKey first = new PointKey(1, 2);
+        PointKey second = new PointKey(1, 2);
+        MyHashMap<PointKey, String> map = new MyHashMap<>(first, "first", HashingStrategy.identity());
+        map.put(second, "second");
+        assertEquals(2, map.size());
+        assertEquals("first", map.get(first));
+        assertEquals("second", map.get(second));
+        assertNull(map.get(new PointKey(1, 2)));
+    }
+
+    @Test
+    void testCaseInsensitiveStrategy() {
+        // Test that keys differing only in ASCII case map to the same entry, across a resize.
+        MyHashMap<String, Integer> map = new MyHashMap<>("Key0", 0, HashingStrategy.caseInsensitiveAscii());
+        for (int i = 1; i < 100; i++) {
+            map.put("Key" + i, i);
+        }
+        map.put("KEY5", 50);  // Overwrites "Key5".
+        assertEquals(100, map.size());
+        assertEquals(50, (int) map.get("key5"));
+        assertTrue(map.contains("kEy99"));
+        assertEquals(7, (int) map.replace("KEY7", 70));
+        assertFalse(map.contains("Key100"));
+    }
+
+    @Test
+    void testTreeBucketQueueOperationsKeepTreeInSync() {
+        // Test that the GenericQueue operations a TreeBucket inherits keep its tree in step with
+        // its list, so every entry in the list can be found and no removed entry can.
+        String[] keys = collidingKeys(4);
+        TreeBucket<String, Integer> bucket = new TreeBucket<>(null);
+        bucket.enqueue(new MyHashMap.MapEntry<>("solo", -1));
+        java.util.ArrayList<MyHashMap.MapEntry<String, Integer>> batch = new java.util.ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            batch.add(new MyHashMap.MapEntry<>(keys[i], i));
+        }
+        bucket.enqueueAll(batch);
+        bucket.enqueueAll(new MyHashMap.MapEntry<>(keys[8], 8), new MyHashMap.MapEntry<>(keys[9], 9));
+        assertTreeMatchesList(bucket);
+
+        java.util.ArrayList<String> taken = new java.util.ArrayList<>();
+        assertEquals(3, bucket.dequeue(3, entry -> taken.add(entry.key)));
+        assertEquals(8, bucket.getLength());
+        assertTreeMatchesList(bucket);
+        for (String key : taken) {
+            assertNull(bucket.find(key, MyHashMap.hash(key, null)));
+        }
+
+        bucket.set(0, new MyHashMap.MapEntry<>("replaced", 0));
+        assertNull(bucket.find(keys[2], MyHashMap.hash(keys[2], null)));
+        assertTreeMatchesList(bucket);
+
+        TreeBucket<String, Integer> target = new TreeBucket<>(null);
+        target.add(new MyHashMap.MapEntry<>(keys[15], 15));
+        assertEquals(8, bucket.drainTo(target));
+        assertEquals(0, bucket.getLength());
+        assertNull(bucket.find("replaced", MyHashMap.hash("replaced", null)));
+        assertEquals(9, target.getLength());
+        assertTreeMatchesList(target);
+    }
+
+    /**
+     * Checks that every entry in a tree bucket's list is found through its tree.
+     */
+    private static void assertTreeMatchesList(TreeBucket<String, Integer> bucket) {
+        int count = 0;
+        for (MyHashMap.MapEntry<String, Integer> entry : bucket) {
+            assertSame(entry, bucket.find(entry.key, MyHashMap.hash(entry.key, null)).data);
+            count++;
+        }
+        assertEquals(bucket.getLength(), count);
+        assertTrue(bucket.treeHeight() <= 1.45 * (32 - Integer.numberOfLeadingZeros(count)) + 2);
+    }
+
+    @Test
+    void testCollidingKeysAreTreeified() {
+        // "Aa" and "BB" have the same String hash code, so every string built from n of these
+        // blocks collides with all 2^n others. 4096 such keys would form a single chain.
+        String[] keys = collidingKeys(12);
+        MyHashMap<String, Integer> map = new MyHashMap<>(keys[0], 0);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        assertEquals(keys.length, map.size());
+        assertTrue(map.bucketFor(keys[0]) instanceof TreeBucket);
+        TreeBucket<String, Integer> bucket = (TreeBucket<String, Integer>) map.bucketFor(keys[0]);
+        assertEquals(keys.length, bucket.getLength());
+        assertTrue(bucket.treeHeight() <= 1.45 * 12 + 2);  // AVL height bound for 4096 nodes.
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, (int) map.get(keys[i]));
+        }
+        assertFalse(map.contains("AaAaAaAaAaAaAa"));  // Colliding length, not inserted.
+        assertEquals(5, (int) map.replace(keys[5], 50));
+        int count = 0;
+        for (Integer ignored : map) {
+            count++;
+        }
+        assertEquals(keys.length, count);  // Iteration still walks the bucket's chain.
+    }
+
+    @Test
+    void testCollidingIncomparableKeys() {
+        // Keys with a constant hash code and no compareTo must still all be found in the tree.
+        MyHashMap<CollidingKey, Integer> map = new MyHashMap<>(new CollidingKey(0), 0);
+        for (int i = 0; i < 500; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        assertEquals(500, map.size());
+        assertTrue(map.bucketFor(new CollidingKey(0)) instanceof TreeBucket);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, (int) map.get(new CollidingKey(i)));
+        }
+        assertNull(map.get(new CollidingKey(500)));
+    }
+
+    @Test
+    void testTreeSplitsBackToChainsOnResize() {
+        // Keys whose hashes differ only above the initial mask share a bucket until the table
+        // grows, after which no bucket needs to stay a tree.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 0; i < 200; i++) {
+            map.put(i << 6, i);  // Integer hash codes are the value; spread leaves these low bits 0.
+        }
+        for (int i = 200; i < 2000; i++) {
+            map.put(i * 2 + 1, i);  // Grow the table.
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, (int) map.get(i << 6));
+            assertFalse(map.bucketFor(i << 6) instanceof TreeBucket);
+        }
+    }
+
+    @Test
+    void testRemove() {
+        // Test removing keys from a chain and that size and iteration stay consistent.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 1; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(i, (int) map.remove("key" + i));
+        }
+        assertNull(map.remove("key0"));  // Already removed.
+        assertEquals(50, map.size());
+        int sum = 0;
+        for (int value : map) {
+            assertEquals(1, value % 2);
+            sum += value;
+        }
+        assertEquals(2500, sum);  // 1 + 3 + ... + 99
+        map.put("key0", 0);  // Removed keys can be added again.
+        assertEquals(0, (int) map.get("key0"));
+    }
+
+    @Test
+    void testRemoveFromTreeUntreeifies() {
+        // Test removal from a treeified bucket, down to the point where it becomes a chain.
+        String[] keys = collidingKeys(6);
+        MyHashMap<String, Integer> map = new MyHashMap<>(keys[0], 0);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        assertTrue(map.bucketFor(keys[0]) instanceof TreeBucket);
+        for (int i = 0; i < keys.length - 3; i++) {
+            assertEquals(i, (int) map.remove(keys[i]));
+            for (int j = i + 1; j < keys.length; j++) {
+                assertEquals(j, (int) map.get(keys[j]));  // The tree stays searchable.
+            }
+        }
+        assertEquals(3, map.size());
+        assertFalse(map.bucketFor(keys[keys.length - 1]) instanceof TreeBucket);
+        assertEquals(keys.length - 1, (int) map.get(keys[keys.length - 1]));
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        // Test that the function only runs for missing keys.
+        MyHashMap<String, Integer> map = new MyHashMap<>("one", 1);
+        assertEquals(1, (int) map.computeIfAbsent("one", key -> 100));
+        assertEquals(3, (int) map.computeIfAbsent("two", String::length));
+        assertNull(map.computeIfAbsent("three", key -> null));  // Null result stores nothing.
+        assertFalse(map.contains("three"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testCompute() {
+        // Test updating, adding and removing through compute.
+        MyHashMap<String, Integer> map = new MyHashMap<>("a", 1);
+        assertEquals(2, (int) map.compute("a", (key, value) -> value + 1));
+        assertEquals(10, (int) map.compute("b", (key, value) -> value == null ? 10 : value));
+        assertNull(map.compute("a", (key, value) -> null));  // Null result removes the key.
+        assertFalse(map.contains("a"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testMergeCounts() {
+        // Test merge as a counter, and removal through a null result.
+        MyHashMap<String, Integer> counts = new MyHashMap<>("x", 0);
+        String[] words = { "x", "y", "x", "z", "x", "y" };
+        for (String word : words) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        assertEquals(3, (int) counts.get("x"));
+        assertEquals(2, (int) counts.get("y"));
+        assertEquals(1, (int) counts.get("z"));
+        assertNull(counts.merge("z", 1, (a, b) -> null));
+        assertFalse(counts.contains("z"));
+        assertEquals(2, counts.size());
+    }
+
+    @Test
+    void testComputeFunctionModifyingMapFails() {
+        // A function that adds to the map would invalidate the lookup compute already made.
+        MyHashMap<String, Integer> map = new MyHashMap<>("a", 1);
+        assertThrows(java.util.ConcurrentModificationException.class,
+                () -> map.computeIfAbsent("b", key -> {
+                    map.put("c", 3);
+                    return 2;
+                }));
+    }
+
+    @Test
+    void testExpireAfterWrite() {
+        // Entries expire a fixed time after their last write, whatever reads happen meanwhile.
+        long[] now = { 0 };
+        MyHashMap<String, Integer> map = new MyHashMap<>("a", 1);
+        map.setClock(() -> now[0]);
+        map.expireAfterWrite(10, TimeUnit.SECONDS);
+        now[0] = TimeUnit.SECONDS.toNanos(5);
+        map.put("b", 2);
+        assertEquals(1, (int) map.get("a"));
+        now[0] = TimeUnit.SECONDS.toNanos(10);
+        assertNull(map.get("a"));  // Expired lazily, before the wheel has removed it.
+        assertFalse(map.contains("a"));
+        assertNull(map.replace("a", 11));
+        assertEquals(2, (int) map.get("b"));
+        map.put("b", 22);  // Rewriting restarts the period, and the write removes "a".
+        assertEquals(1, map.size());
+        now[0] = TimeUnit.SECONDS.toNanos(19);
+        assertEquals(22, (int) map.get("b"));
+        now[0] = TimeUnit.SECONDS.toNanos(21);
+        assertEquals(1, map.cleanUp());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testExpireAfterAccess() {
+        // Entries that keep being read stay; the others expire.
+        long[] now = { 0 };
+        MyHashMap<String, Integer> map = new MyHashMap<>("read", 1);
+        map.setClock(() -> now[0]);
+        map.expireAfterAccess(1, TimeUnit.MINUTES);
+        map.put("idle", 2);
+        for (int second = 0; second < 300; second += 30) {
+            now[0] = TimeUnit.SECONDS.toNanos(second);
+            assertEquals(1, (int) map.get("read"));
+        }
+        assertNull(map.get("idle"));
+        assertEquals(5, (int) map.merge("idle", 5, Integer::sum));  // An expired value counts as missing.
+        map.cleanUp();
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testExpirationCostsOnlyExpiredEntries() {
+        // Entries written at different times are removed batch by batch as the clock passes
+        // their deadlines, however long the map's other entries still have to live.
+        long[] now = { 0 };
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(-1, -1);
+        map.setClock(() -> now[0]);
+        map.expireAfterWrite(1, TimeUnit.HOURS);
+        map.remove(-1);
+        for (int minute = 0; minute < 120; minute++) {
+            now[0] = TimeUnit.MINUTES.toNanos(minute);
+            for (int i = 0; i < 100; i++) {
+                map.put(minute * 100 + i, i);  // Puts also remove whatever has expired.
+            }
+            int expected = Math.min(minute + 1, 60) * 100;
+            assertEquals(expected, map.size(), "minute " + minute);
+        }
+        now[0] = TimeUnit.MINUTES.toNanos(500);
+        assertEquals(6000, map.cleanUp());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testExpirationIsOptional() {
+        // A map without expiration never drops entries and can't change its clock afterwards.
+        MyHashMap<String, Integer> map = new MyHashMap<>("a", 1);
+        assertEquals(0, map.cleanUp());
+        map.expireAfterWrite(1, TimeUnit.DAYS);
+        assertThrows(IllegalStateException.class, () -> map.setClock(System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () -> map.expireAfterAccess(0, TimeUnit.SECONDS));
+        assertEquals(1, (int) map.get("a"));
+    }
+
+    @Test
+    void testIteratorIsFailFast() {
+        // Adding or removing a key during iteration is detected; replacing a value is not structural.
+        MyHashMap<String, Integer> map = new MyHashMap<>("a", 1);
+        map.put("b", 2);
+        Iterator<Integer> iterator = map.iterator();
+        iterator.next();
+        map.replace("a", 11);
+        iterator.next();
+        map.put("c", 3);
+        assertThrows(java.util.ConcurrentModificationException.class, iterator::next);
+
+        Iterator<Integer> removing = map.iterator();
+        map.remove("b");
+        assertThrows(java.util.ConcurrentModificationException.class, removing::next);
+    }
+
+    @Test
+    void testSnapshotIteratorDuringWrites() {
+        // A snapshot iterator keeps going while the map grows, shrinks and treeifies, and sees
+        // every entry that is still there exactly once.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 1; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        Iterator<Integer> iterator = map.snapshotIterator();
+        boolean[] seen = new boolean[100];
+        int step = 0;
+        while (iterator.hasNext()) {
+            int value = iterator.next();
+            if (value < 100) {
+                assertFalse(seen[value], "value " + value + " seen twice");
+                seen[value] = true;
+            }
+            map.put("new" + step, 1000 + step);  // Forces several resizes.
+            if (step % 2 == 0) {
+                map.remove("new" + (step / 2));
+            }
+            step++;
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(seen[i], "value " + i + " missed");
+        }
+        for (String key : collidingKeys(4)) {
+            map.put(key, -1);  // A treeified bucket is walked through its old chain.
+        }
+        int count = 0;
+        for (Iterator<Integer> snapshot = map.snapshotIterator(); snapshot.hasNext(); snapshot.next()) {
+            if (count++ == 0) {
+                for (int i = 0; i < 50; i++) {
+                    map.remove("key" + (i * 2));
+                }
+            }
+        }
+        assertTrue(count >= map.size());
+    }
+
+    @Test
+    void testIterationDoesNotAllocate() {
+        // Test that skipping empty buckets and walking chains allocates nothing but the iterator.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 1; i < 4096; i++) {
+            map.put(i, i);
+        }
+        for (int i = 64; i < 4096; i++) {
+            map.remove(i);  // Leaves the large table mostly empty.
+        }
+        long[] checksum = new long[1];
+        long allocated = allocatedBy(() -> checksum[0] += sumValues(map));
+
+        assertTrue(checksum[0] > 0);
+        assertTrue(allocated <= 64, "allocated " + allocated + " bytes");  // One iterator object.
+    }
+
+    private static long sumValues(MyHashMap<Integer, Integer> map) {
+        long sum = 0;
+        Iterator<Integer> iterator = map.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    @Test
+    void testStreams() {
+        // Test that sequential and parallel streams see every value once.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 1; i < 100000; i++) {
+            map.put(i, i);
+        }
+        long expected = 99999L * 100000 / 2;
+        assertEquals(expected, map.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(expected, map.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(100000, map.parallelStream().distinct().count());
+    }
+
+    @Test
+    void testSpliteratorSplitsByBuckets() {
+        // Test that splits cover disjoint bucket ranges and that only the unsplit spliterator is SIZED.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 1; i < 1000; i++) {
+            map.put(i, i);
+        }
+        java.util.Spliterator<Integer> right = map.spliterator();
+        assertTrue(right.hasCharacteristics(java.util.Spliterator.SIZED));
+        assertEquals(1000, right.estimateSize());
+        java.util.Spliterator<Integer> left = right.trySplit();
+        assertNotNull(left);
+        assertFalse(right.hasCharacteristics(java.util.Spliterator.SIZED));
+        assertEquals(500, left.estimateSize());
+        boolean[] seen = new boolean[1000];
+        java.util.function.Consumer<Integer> mark = value -> {
+            assertFalse(seen[value]);
+            seen[value] = true;
+        };
+        assertTrue(left.tryAdvance(mark));
+        left.forEachRemaining(mark);
+        right.forEachRemaining(mark);
+        for (boolean value : seen) {
+            assertTrue(value);
+        }
+        java.util.Spliterator<Integer> modified = map.spliterator();
+        map.put(-1, -1);
+        assertThrows(java.util.ConcurrentModificationException.class, () -> modified.forEachRemaining(value -> { }));
+    }
+
+    @Test
+    void testForEachEntry() {
+        // Test that forEach passes every key with its own value.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 1; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        int[] count = { 0 };
+        map.forEach((key, value) -> {
+            assertEquals("key" + value, key);
+            count[0]++;
+        });
+        assertEquals(100, count[0]);
+        assertThrows(java.util.ConcurrentModificationException.class,
+                () -> map.forEach((key, value) -> map.remove(key)));
+    }
+
+    @Test
+    void testKeysAndEntries() {
+        // Test that the views walk the map's own entries and stay in step with it.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 1; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+        java.util.HashSet<String> keys = new java.util.HashSet<>();
+        for (String key : map.keys()) {
+            keys.add(key);
+        }
+        assertEquals(100, keys.size());
+        int count = 0;
+        for (MyHashMap.MapEntry<String, Integer> entry : map.entries()) {
+            assertEquals("key" + entry.getValue(), entry.getKey());
+            count++;
+        }
+        assertEquals(100, count);
+        map.put("key100", 100);  // The views are live, not copies.
+        count = 0;
+        for (String ignored : map.keys()) {
+            count++;
+        }
+        assertEquals(101, count);
+        long[] sum = { 0 };
+        map.forEachEntry(entry -> sum[0] += entry.getValue());
+        assertEquals(100L * 101 / 2, sum[0]);
+        Iterator<String> iterator = map.keys().iterator();
+        iterator.next();
+        map.remove("key0");
+        assertThrows(java.util.ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void testCursor() {
+        // Test walking, updating and removing through a cursor, and reusing it after reset.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 1; i < 1000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 20; i++) {
+            map.put(i * 1024, i * 1024);  // Same bucket for long enough to treeify.
+        }
+        HMCursor<Integer, Integer> cursor = map.cursor();
+        assertThrows(IllegalStateException.class, cursor::key);
+        int visited = 0;
+        while (cursor.next()) {
+            assertEquals(cursor.key(), cursor.value());
+            if (cursor.key() % 2 == 0) {
+                cursor.remove();  // Removing the current entry doesn't disturb the walk.
+            } else {
+                cursor.setValue(-cursor.key());
+            }
+            visited++;
+        }
+        assertEquals(1019, visited);
+        assertEquals(500, map.size());  // Only the odd keys are left.
+        cursor.reset();
+        while (cursor.next()) {
+            assertEquals(-cursor.key(), (int) cursor.value());
+        }
+        cursor.reset();
+        map.put(-1, -1);
+        assertThrows(java.util.ConcurrentModificationException.class, cursor::next);
+    }
+
+    @Test
+    void testCursorFailsAfterResize() {
+        // Test that remove and setValue refuse to act on a bucket index cached before a resize.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.put(16, 16);
+        map.put(32, 32);
+        map.put(3, 3);
+        HMCursor<Integer, Integer> cursor = map.cursor();
+        assertTrue(cursor.next());
+        for (int i = 100; i < 200; i++) {
+            map.put(i, i);  // Grows the table past 16 buckets.
+        }
+        assertThrows(java.util.ConcurrentModificationException.class, cursor::remove);
+        assertThrows(java.util.ConcurrentModificationException.class, () -> cursor.setValue(0));
+        assertEquals(103, map.size());
+        for (int key : new int[] { 16, 32, 3, 150 }) {
+            assertEquals(key, (int) map.get(key));
+        }
+
+        cursor.reset();
+        assertTrue(cursor.next());
+        cursor.remove();  // Without other changes, the cursor's own removals are still allowed.
+        assertTrue(cursor.next());
+        cursor.setValue(-1);
+        assertEquals(102, map.size());
+    }
+
+    @Test
+    void testCursorDoesNotAllocate() {
+        // Test that walking the map with a reused cursor allocates nothing.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 1; i < 1000; i++) {
+            map.put(i, i);
+        }
+        HMCursor<Integer, Integer> cursor = map.cursor();
+        long[] checksum = new long[1];
+        long allocated = allocatedBy(() -> checksum[0] += sumWithCursor(cursor));
+
+        assertEquals(4 * 999L * 1000 / 2, checksum[0]);
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    void testEmptyConstructor() {
+        // Test that a map can start empty and behaves like any other map.
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+        map.put("a", 1);
+        assertEquals(1, map.size());
+        assertEquals(1, (int) map.get("a"));
+    }
+
+    @Test
+    void testExpectedSizeAvoidsResizing() {
+        // Test that a presized map holds the expected number of entries without growing.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(10000);
+        map.enableMetrics();
+        int capacity = map.capacity();
+        assertEquals(1, Integer.bitCount(capacity));  // Capacity is a power of two.
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(capacity, map.capacity());
+        assertEquals(0, map.stats().getResizeCount());
+
+        MyHashMap<Integer, Integer> dense = MyHashMap.withExpectedSize(10000, 4.0f);
+        assertTrue(dense.capacity() < capacity);  // A higher load factor needs fewer buckets.
+        for (int i = 0; i < 10000; i++) {
+            dense.put(i, i);
+        }
+        assertEquals(10000, dense.size());
+        assertEquals(4999, (int) dense.get(4999));
+    }
+
+    @Test
+    void testExpectedSizeRejectsBadArguments() {
+        // Test that impossible sizes and load factors are rejected.
+        assertThrows(IllegalArgumentException.class, () -> new MyHashMap<String, Integer>(-1));
+        assertThrows(IllegalArgumentException.class, () -> MyHashMap.withExpectedSize(10, 0f));
+        assertThrows(IllegalArgumentException.class, () -> MyHashMap.withExpectedSize(10, Float.NaN));
+        assertEquals(0, MyHashMap.withExpectedSize(0, 0.5f).size());
+    }
+
+    @Test
+    void testPutAllFromMap() {
+        // Test that putAll copies a java.util.Map, resizing at most once, and overwrites existing keys.
+        java.util.HashMap<String, Integer> source = new java.util.HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            source.put("key" + i, i);
+        }
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", -1);
+        map.enableMetrics();
+        map.putAll(source);
+        assertEquals(5000, map.size());
+        assertEquals(1, map.stats().getResizeCount());
+        assertEquals(5000, map.stats().getPutCount());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, (int) map.get("key" + i));
+        }
+    }
+
+    @Test
+    void testPutAllFromMyHashMap() {
+        // Test that putAll copies another MyHashMap into an empty map and into one with overlapping keys.
+        MyHashMap<Integer, String> source = new MyHashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            source.put(i, "v" + i);
+        }
+        MyHashMap<Integer, String> copy = new MyHashMap<>();
+        copy.putAll(source);
+        assertEquals(3000, copy.size());
+        for (int i = 0; i < 3000; i++) {
+            assertEquals("v" + i, copy.get(i));
+        }
+
+        MyHashMap<Integer, String> overlapping = new MyHashMap<>();
+        for (int i = 2000; i < 4000; i++) {
+            overlapping.put(i, "old");
+        }
+        overlapping.putAll(source);
+        assertEquals(4000, overlapping.size());
+        assertEquals("v2500", overlapping.get(2500));
+        assertEquals("old", overlapping.get(3500));
+
+        overlapping.putAll(overlapping);  // Copying a map into itself changes nothing.
+        assertEquals(4000, overlapping.size());
+    }
+
+    @Test
+    void testPutAllAcrossStrategies() {
+        // Test that copying between maps with different hashing strategies rehashes the keys.
+        MyHashMap<String, Integer> source = new MyHashMap<>();
+        source.put("Apple", 1);
+        source.put("APPLE", 2);
+        source.put("pear", 3);
+        MyHashMap<String, Integer> map = new MyHashMap<>(HashingStrategy.caseInsensitiveAscii());
+        map.putAll(source);
+        assertEquals(2, map.size());  // The two spellings of apple are one key here.
+        assertNotNull(map.get("apple"));
+        assertEquals(3, (int) map.get("PEAR"));
+    }
+
+    @Test
+    void testPutAllArrays() {
+        // Test that putAll and putAllUnique load parallel arrays and check their lengths.
+        String[] keys = new String[2000];
+        Integer[] values = new Integer[2000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+            values[i] = i;
+        }
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        map.enableMetrics();
+        map.putAllUnique(keys, values);
+        assertEquals(2000, map.size());
+        assertEquals(1, map.stats().getResizeCount());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, (int) map.get(keys[i]));
+        }
+
+        map.putAll(new String[] { "key7", "extra" }, new Integer[] { 70, -1 });
+        assertEquals(2001, map.size());
+        assertEquals(70, (int) map.get("key7"));
+        assertEquals(-1, (int) map.get("extra"));
+
+        assertThrows(IllegalArgumentException.class, () -> map.putAll(new String[2], new Integer[1]));
+        assertThrows(IllegalArgumentException.class, () -> map.putAllUnique(new String[1], new Integer[0]));
+    }
+
+    private static long sumWithCursor(HMCursor<Integer, Integer> cursor) {
+        long sum = 0;
+        cursor.reset();
+        while (cursor.next()) {
+            sum += cursor.value();
+        }
+        return sum;
+    }
+
+    private static String[] collidingKeys(int blocks) {
+        String[] keys = new String[1 << blocks];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int b = 0; b < blocks; b++) {
+                key.append((i & (1 << b)) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = key.toString();
+        }
+        return keys;
+    }
+
+    /**
+     * A key whose hash code is always the same and which is not Comparable.
+     */
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CollidingKey && ((CollidingKey) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /**
+     * A small compound key with a precomputed hash code.
+     */
+    private static final class PointKey {
+        private final int x;
+        private final int y;
+        private final int hash;
+
+        PointKey(int x, int y) {
+            this.x = x;
+            this.y = y;
+            this.hash = 31 * x + y;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof PointKey)) {
+                return false;
+            }
+            PointKey point = (PointKey) other;
+            return x == point.x && y == point.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
 }
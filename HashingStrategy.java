@@ -0,0 +1,82 @@
+/**
+ * HashingStrategy supplies the hash code and equality that MyHashMap uses for its keys in place
+ * of the keys' own hashCode and equals. Implementations must be consistent: keys that are equal
+ * under the strategy must have the same hash.
+ *
+ * @param <K> The type of keys the strategy applies to
+ */
+public interface HashingStrategy<K> {
+
+    /**
+     * Returns the hash code of a key.
+     *
+     * @param key The key
+     * @return The hash code
+     */
+    int hash(K key);
+
+    /**
+     * Checks whether two keys are the same key.
+     *
+     * @param a The key stored in the map
+     * @param b The key being looked up
+     * @return true if the keys are equal, false otherwise
+     */
+    boolean equals(K a, K b);
+
+    /**
+     * Returns a strategy that treats keys as equal only if they are the same object.
+     *
+     * @param <K> The type of keys
+     * @return The identity strategy
+     */
+    static <K> HashingStrategy<K> identity() {
+        return new HashingStrategy<K>() {
+            @Override
+            public int hash(K key) {
+                return System.identityHashCode(key);
+            }
+
+            @Override
+            public boolean equals(K a, K b) {
+                return a == b;
+            }
+        };
+    }
+
+    /**
+     * Returns a strategy for Strings that ignores ASCII case. Characters are folded one at a
+     * time while hashing and comparing, so no lower-cased copy of the key is made.
+     *
+     * @return The case-insensitive strategy
+     */
+    static HashingStrategy<String> caseInsensitiveAscii() {
+        return new HashingStrategy<String>() {
+            @Override
+            public int hash(String key) {
+                int h = 0;
+                for (int i = 0; i < key.length(); i++) {
+                    h = 31 * h + toLower(key.charAt(i));
+                }
+                return h;
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                if (a.length() != b.length()) {
+                    return false;
+                }
+                for (int i = 0; i < a.length(); i++) {
+                    if (toLower(a.charAt(i)) != toLower(b.charAt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private char toLower(char c) {
+                return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+        };
+    }
+}
@@ -0,0 +1,209 @@
+import java.util.Iterator;
+
+/**
+ * LongHashMap is a version of MyHashMap keyed by primitive longs, for numeric IDs that would
+ * otherwise have to be turned into Strings. Keys live in a long[] and values in a parallel
+ * Object[] with linear probing, like OpenHashMap, so there is no boxing, no string building and
+ * no equals call on lookup. A slot is free when its value is null; null values are stored as a
+ * marker object so they can still be told apart from free slots.
+ *
+ * @param <T> The type of values stored in the HashMap
+ */
+public class LongHashMap<T> implements Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 16;         // Initial number of slots (power of two).
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;  // Linear probing degrades quickly above this.
+    private static final int MAXIMUM_CAPACITY = 1 << 30;    // Largest table we will allocate.
+
+    private long[] keys;       // Key in each occupied slot.
+    private Object[] values;  // Value in each slot, null if the slot is free.
+    private int size;
+    private int threshold;    // Size at which the table is doubled.
+
+    /**
+     * Constructor for LongHashMap.
+     *
+     * @param key The initial key
+     * @param value The initial value
+     */
+    public LongHashMap(long key, T value) {
+        allocate(DEFAULT_CAPACITY);
+        put(key, value);
+    }
+
+    /**
+     * Mixes a long key so that sequential IDs spread over the whole table.
+     *
+     * @param key The key
+     * @return The mixed hash code
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;  // Fibonacci hashing: multiply by 2^64 / golden ratio.
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Allocates empty arrays with the given (power of two) number of slots.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        threshold = capacity >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the slot holding the key, or the negative of (free slot + 1) where it would go.
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every entry.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(Object value) {
+        return value == PrimitiveHMIterator.NULL_VALUE ? null : (T) value;
+    }
+
+    /**
+     * Puts a key-value pair into the HashMap.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(long key, T value) {
+        Object stored = value == null ? PrimitiveHMIterator.NULL_VALUE : value;
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slot] = stored; // Update the value for existing key
+            return;
+        }
+        slot = -slot - 1;
+        keys[slot] = key;
+        values[slot] = stored;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Checks if the HashMap contains a specific key.
+     *
+     * @param key The key to check
+     * @return true if the key exists, false otherwise
+     */
+    public boolean contains(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Gets the value associated with a specific key.
+     *
+     * @param key The key
+     * @return The value associated with the key, or null if the key doesn't exist
+     */
+    public T get(long key) {
+        int slot = findSlot(key);
+        return slot >= 0 ? unmask(values[slot]) : null;
+    }
+
+    /**
+     * Replaces the value for a specific key.
+     *
+     * @param key The key
+     * @param value The new value
+     * @return The old value associated with the key, or null if the key doesn't exist
+     */
+    public T replace(long key, T value) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        T oldValue = unmask(values[slot]);
+        values[slot] = value == null ? PrimitiveHMIterator.NULL_VALUE : value;
+        return oldValue;
+    }
+
+    /**
+     * Removes a key and its value, shifting later entries of the probe run back into the gap.
+     *
+     * @param key The key
+     * @return The value that was associated with the key, or null if the key doesn't exist
+     */
+    public T remove(long key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        T oldValue = unmask(values[slot]);
+        int mask = keys.length - 1;
+        int hole = slot;
+        int index = (hole + 1) & mask;
+        while (values[index] != null) {
+            int home = hash(keys[index]) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, index].
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of key-value mappings in the HashMap.
+     *
+     * @return The size of the HashMap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the HashMap is empty.
+     *
+     * @return true if the HashMap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator over the values in the HashMap.
+     *
+     * @return An iterator over the values
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new PrimitiveHMIterator<>(values);
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * LongLongMap maps primitive long keys to primitive long values, for counters and other numeric
+ * state that would otherwise be boxed on every update. Keys and values live in two parallel
+ * long[] arrays with linear probing. Key 0 marks a free slot, so the key 0 itself is stored
+ * outside the arrays.
+ */
+public class LongLongMap {
+    private static final int DEFAULT_CAPACITY = 16;         // Initial number of slots (power of two).
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;  // Linear probing degrades quickly above this.
+    private static final int MAXIMUM_CAPACITY = 1 << 30;    // Largest table we will allocate.
+
+    private long[] keys;    // Key in each slot, or 0 if the slot is free.
+    private long[] values;  // Value in each slot.
+    private boolean hasZeroKey;
+    private long zeroValue;  // Value of key 0 when hasZeroKey is set.
+    private int size;
+    private int threshold;   // Number of array entries at which the table is doubled.
+
+    /**
+     * EntryConsumer receives the key and value of each entry without boxing.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    /**
+     * Constructor for LongLongMap.
+     *
+     * @param key The initial key
+     * @param value The initial value
+     */
+    public LongLongMap(long key, long value) {
+        allocate(DEFAULT_CAPACITY);
+        put(key, value);
+    }
+
+    /**
+     * Allocates empty arrays with the given (power of two) number of slots.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        threshold = capacity >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the slot holding a non-zero key, or the negative of (free slot + 1) where it
+     * would go.
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int index = LongHashMap.hash(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Stores a new non-zero key in a free slot and grows the table if needed.
+     */
+    private void insert(int freeSlot, long key, long value) {
+        keys[freeSlot] = key;
+        values[freeSlot] = value;
+        size++;
+        if (size - (hasZeroKey ? 1 : 0) > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every entry.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = LongHashMap.hash(oldKeys[i]) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Puts a key-value pair into the map.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(long key, long value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            values[slot] = value; // Update the value for existing key
+        } else {
+            insert(-slot - 1, key, value);
+        }
+    }
+
+    /**
+     * Adds a delta to the value of a key with a single probe, starting from 0 if the key is
+     * missing. This is the counter increment that would otherwise need a get and a put.
+     *
+     * @param key The key
+     * @param delta The amount to add
+     * @return The new value
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                zeroValue = 0;
+            }
+            return zeroValue += delta;
+        }
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+        insert(-slot - 1, key, delta);
+        return delta;
+    }
+
+    /**
+     * Checks if the map contains a specific key.
+     *
+     * @param key The key to check
+     * @return true if the key exists, false otherwise
+     */
+    public boolean contains(long key) {
+        return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+    }
+
+    /**
+     * Gets the value associated with a specific key.
+     *
+     * @param key The key
+     * @param defaultValue The value to return if the key doesn't exist
+     * @return The value associated with the key, or defaultValue if the key doesn't exist
+     */
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = findSlot(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Gets the value associated with a specific key.
+     *
+     * @param key The key
+     * @return The value associated with the key, or 0 if the key doesn't exist
+     */
+    public long get(long key) {
+        return get(key, 0);
+    }
+
+    /**
+     * Replaces the value for a specific key if it exists.
+     *
+     * @param key The key
+     * @param value The new value
+     * @return true if the key existed and its value was replaced, false otherwise
+     */
+    public boolean replace(long key, long value) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                zeroValue = value;
+            }
+            return hasZeroKey;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+        values[slot] = value;
+        return true;
+    }
+
+    /**
+     * Removes a key, shifting later entries of the probe run back into the gap.
+     *
+     * @param key The key
+     * @return true if the key existed, false otherwise
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int hole = slot;
+        int index = (hole + 1) & mask;
+        while (keys[index] != 0) {
+            int home = LongHashMap.hash(keys[index]) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, index].
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of key-value mappings in the map.
+     *
+     * @return The size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Passes every key and value to the consumer without boxing.
+     *
+     * @param consumer Receives each entry
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * MBeans registers the statistics MXBeans of MyHashMap and GenericQueue in the platform MBean
+ * server, under names of the form datastructures:type=Type,name="name".
+ */
+final class MBeans {
+
+    private MBeans() {
+    }
+
+    /**
+     * Registers an MXBean in the platform MBean server whose every attribute read takes a fresh
+     * snapshot, so monitoring tools always see current values.
+     *
+     * @param type The type key of the ObjectName, such as "MyHashMap"
+     * @param name The name key of the ObjectName, which tells instances apart
+     * @param mxBean The MXBean interface, which the snapshots implement
+     * @param snapshot Takes a snapshot
+     * @param <I> The MXBean interface type
+     * @return The name the bean was registered under
+     * @throws IllegalArgumentException if the name is invalid or already registered
+     */
+    static <I> ObjectName register(String type, String name, Class<I> mxBean, Supplier<? extends I> snapshot) {
+        I live = mxBean.cast(Proxy.newProxyInstance(mxBean.getClassLoader(), new Class<?>[] { mxBean }, (proxy, method, args) -> {
+            try {
+                return method.invoke(snapshot.get(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+        try {
+            ObjectName objectName = new ObjectName("datastructures:type=" + type + ",name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(live, mxBean, true), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register MBean " + name, e);
+        }
+    }
+}
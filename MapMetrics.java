@@ -0,0 +1,97 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * MapMetrics holds the counters a MyHashMap keeps once metrics are enabled: lookups, hits and
+ * misses of get, puts, removes, resizes, and a histogram of how many nodes each get probed. The
+ * counters are LongAdders and the histogram an AtomicLongArray, so recording never locks and
+ * concurrent readers (such as a JMX client) see consistent values. A map without metrics has no
+ * MapMetrics at all and pays only a null check per operation.
+ *
+ * Histograms have power-of-two buckets: bucket 0 counts 0, bucket 1 counts 1, bucket 2 counts
+ * 2-3, bucket 3 counts 4-7, and so on up to bucket 7 for 64 and more.
+ *
+ * This class also defines the JFR events the map emits: a RehashEvent for every resize, and a
+ * LongChainEvent for a get that probed LONG_CHAIN nodes or more while metrics are enabled. They
+ * cost next to nothing unless a flight recording has them enabled.
+ */
+public final class MapMetrics {
+    static final int HISTOGRAM_BUCKETS = 8;
+    static final int LONG_CHAIN = MyHashMap.TREEIFY_THRESHOLD;  // Probes at which a get is reported to JFR.
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder puts = new LongAdder();
+    final LongAdder removes = new LongAdder();  // Every unlinked entry, including expired ones.
+    final LongAdder resizes = new LongAdder();
+    final AtomicLongArray probeLengths = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+    /**
+     * RehashEvent records a resize of a MyHashMap's table.
+     */
+    @Name("MyHashMap.Rehash")
+    @Label("MyHashMap Rehash")
+    @Category("Data Structures")
+    static final class RehashEvent extends Event {
+        @Label("Old Capacity")
+        int oldCapacity;
+        @Label("New Capacity")
+        int newCapacity;
+        @Label("Size")
+        int size;
+    }
+
+    /**
+     * LongChainEvent records a get that had to probe a long chain.
+     */
+    @Name("MyHashMap.LongChainLookup")
+    @Label("MyHashMap Long Chain Lookup")
+    @Category("Data Structures")
+    static final class LongChainEvent extends Event {
+        @Label("Probes")
+        int probes;
+        @Label("Capacity")
+        int capacity;
+        @Label("Hit")
+        boolean hit;
+    }
+
+    /**
+     * Returns the histogram bucket of a length.
+     */
+    static int bucketOf(int length) {
+        return Math.min(HISTOGRAM_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    /**
+     * Records a get that probed a number of nodes.
+     */
+    void recordGet(int probes, boolean hit, int capacity) {
+        (hit ? hits : misses).increment();
+        probeLengths.incrementAndGet(bucketOf(probes));
+        if (probes >= LONG_CHAIN) {
+            LongChainEvent event = new LongChainEvent();
+            if (event.shouldCommit()) {
+                event.probes = probes;
+                event.capacity = capacity;
+                event.hit = hit;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Copies the probe-length histogram.
+     */
+    long[] probeLengths() {
+        long[] counts = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            counts[i] = probeLengths.get(i);
+        }
+        return counts;
+    }
+}
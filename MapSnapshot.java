@@ -0,0 +1,329 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * MapSnapshot is a read-only view of a MyHashMap saved to a file with MyHashMap.save. Opening a
+ * snapshot maps the file and checks its header; nothing is decoded, so it takes the same time
+ * whatever the size of the map. A lookup hashes the encoded key, probes the index in the mapping
+ * and decodes only the value it finds, which is then kept so later lookups of the key don't
+ * decode it again. Decoded values are kept in pages of 1024 entries, allocated as they are
+ * first needed, so a few lookups don't cost memory in proportion to the size of the map.
+ *
+ * The file has four sections, all integers big-endian:
+ *
+ *   header   MAGIC, VERSION, entry count, index slot count, and the offsets of the entry table,
+ *            key section and value section, and the file length (8 ints)
+ *   index    an open-addressing table of slots (key hash, entry number + 1, or 0 if empty),
+ *            probed linearly; the slot count is a power of two at least twice the entry count
+ *   entries  for each entry, the offset and length of its key and of its value (4 ints); a null
+ *            value has length -1 and no bytes
+ *   keys and values   the bytes written by the key and value codecs, back to back
+ *
+ * Key hashes are computed over the encoded bytes, not with hashCode, so a file can be read by any
+ * JVM. Offsets are ints, so a snapshot is limited to 2 GB.
+ *
+ * @param <K> The type of keys in the snapshot
+ * @param <V> The type of values stored in the snapshot
+ */
+public class MapSnapshot<K, V> {
+    static final int MAGIC = 0x484D5331;  // "HMS1"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 8;
+    private static final int ENTRY_BYTES = 16;
+    private static final int PAGE_SHIFT = 10;  // Decoded values are cached in pages of 2^10.
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int NULL_LENGTH = -1;  // Value length recorded for a null value.
+    private static final Object NULL_VALUE = new Object();  // Cached in place of a decoded null.
+
+    private final ByteBuffer buffer;
+    private final SnapshotCodec<K> keyCodec;
+    private final SnapshotCodec<V> valueCodec;
+    private final int size;
+    private final int slotMask;
+    private final int entriesOffset;
+    private final int keysOffset;
+    private final int valuesOffset;
+    private Object[][] values;  // Pages of decoded values by entry number, created as entries are read.
+
+    private MapSnapshot(ByteBuffer buffer, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) throws IOException {
+        this.buffer = buffer;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a MyHashMap snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + buffer.getInt(4));
+        }
+        this.size = buffer.getInt(8);
+        int slots = buffer.getInt(12);
+        this.slotMask = slots - 1;
+        this.entriesOffset = buffer.getInt(16);
+        this.keysOffset = buffer.getInt(20);
+        this.valuesOffset = buffer.getInt(24);
+        if (buffer.getInt(28) != buffer.capacity() || slots <= 0 || Integer.bitCount(slots) != 1 || size < 0 || size > slots / 2
+                || entriesOffset != HEADER_BYTES + (long) slots * SLOT_BYTES
+                || keysOffset != entriesOffset + (long) size * ENTRY_BYTES
+                || valuesOffset < keysOffset || valuesOffset > buffer.capacity()) {
+            throw new IOException("Corrupt snapshot header");
+        }
+    }
+
+    /**
+     * Maps a snapshot file into memory.
+     *
+     * @param path The file written by MyHashMap.save
+     * @param keyCodec The codec the keys were saved with
+     * @param valueCodec The codec the values were saved with
+     * @param <K> The type of keys
+     * @param <V> The type of values
+     * @return A read-only view of the saved map
+     * @throws IOException if the file can't be read or is not a valid snapshot
+     */
+    public static <K, V> MapSnapshot<K, V> open(Path path, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MapSnapshot<>(mapped, keyCodec, valueCodec);  // The mapping outlives the channel.
+        }
+    }
+
+    /**
+     * Writes entries to a snapshot file. The file is written under a temporary name, forced to
+     * disk and then moved into place, so a crash never leaves a half-written snapshot at the path.
+     * If writing fails, the temporary file is deleted.
+     *
+     * @param path The file to write
+     * @param entries The entries; their keys must be distinct
+     * @param keyCodec Encodes the keys
+     * @param valueCodec Encodes the values
+     * @throws IOException if the file can't be written or would be larger than 2 GB
+     */
+    static <K, V> void write(Path path, ArrayList<MyHashMap.MapEntry<K, V>> entries,
+            SnapshotCodec<? super K> keyCodec, SnapshotCodec<? super V> valueCodec) throws IOException {
+        int size = entries.size();
+        byte[][] keys = new byte[size][];
+        byte[][] values = new byte[size][];
+        long keyBytes = 0;
+        long valueBytes = 0;
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyCodec.encode(entries.get(i).key);
+            V value = entries.get(i).value;
+            values[i] = value == null ? null : valueCodec.encode(value);  // Codecs never see null.
+            keyBytes += keys[i].length;
+            valueBytes += values[i] == null ? 0 : values[i].length;
+        }
+        int slots = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;  // Power of two >= 2 * size.
+        long entriesOffset = HEADER_BYTES + (long) slots * SLOT_BYTES;
+        long keysOffset = entriesOffset + (long) size * ENTRY_BYTES;
+        long valuesOffset = keysOffset + keyBytes;
+        long length = valuesOffset + valueBytes;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot would be larger than 2 GB");
+        }
+
+        int[] index = new int[slots * 2];  // Pairs of hash and entry number + 1.
+        for (int i = 0; i < size; i++) {
+            int hash = hash(keys[i]);
+            int slot = hash & (slots - 1);
+            while (index[slot * 2 + 1] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            index[slot * 2] = hash;
+            index[slot * 2 + 1] = i + 1;
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            writeFile(temp, size, slots, entriesOffset, keysOffset, valuesOffset, length, index, keys, values);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the sections of a snapshot to a file and forces it to disk, so it is complete
+     * before it is renamed into place.
+     */
+    private static void writeFile(Path file, int size, int slots, long entriesOffset, long keysOffset, long valuesOffset,
+            long length, int[] index, byte[][] keys, byte[][] values) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            out.writeInt(slots);
+            out.writeInt((int) entriesOffset);
+            out.writeInt((int) keysOffset);
+            out.writeInt((int) valuesOffset);
+            out.writeInt((int) length);
+            for (int value : index) {
+                out.writeInt(value);
+            }
+            int keyOffset = 0;
+            int valueOffset = 0;
+            for (int i = 0; i < size; i++) {
+                out.writeInt(keyOffset);
+                out.writeInt(keys[i].length);
+                out.writeInt(valueOffset);
+                out.writeInt(values[i] == null ? NULL_LENGTH : values[i].length);
+                keyOffset += keys[i].length;
+                valueOffset += values[i] == null ? 0 : values[i].length;
+            }
+            for (byte[] key : keys) {
+                out.write(key);
+            }
+            for (byte[] value : values) {
+                if (value != null) {
+                    out.write(value);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Hashes encoded bytes with FNV-1a, then spreads the result like MyHashMap does.
+     */
+    private static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return MyHashMap.spread(h);
+    }
+
+    /**
+     * Finds the entry number of a key by probing the index, or returns -1.
+     */
+    private int find(K key) {
+        if (key == null) {
+            return -1;
+        }
+        byte[] encoded = keyCodec.encode(key);
+        int hash = hash(encoded);
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            int entry = buffer.getInt(at + 4) - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (buffer.getInt(at) == hash && keyEquals(entry, encoded)) {
+                return entry;
+            }
+        }
+    }
+
+    private boolean keyEquals(int entry, byte[] encoded) {
+        int at = entriesOffset + entry * ENTRY_BYTES;
+        if (buffer.getInt(at + 4) != encoded.length) {
+            return false;
+        }
+        int offset = keysOffset + buffer.getInt(at);
+        for (int i = 0; i < encoded.length; i++) {
+            if (buffer.get(offset + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a view of the bytes of one of an entry's fields.
+     */
+    private ByteBuffer slice(int section, int offsetAt) {
+        ByteBuffer view = buffer.duplicate();
+        int offset = section + buffer.getInt(offsetAt);
+        view.limit(offset + buffer.getInt(offsetAt + 4)).position(offset);
+        return view.slice();
+    }
+
+    private K keyAt(int entry) {
+        return keyCodec.decode(slice(keysOffset, entriesOffset + entry * ENTRY_BYTES));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int entry) {
+        if (values == null) {
+            values = new Object[(size + PAGE_SIZE - 1) >>> PAGE_SHIFT][];
+        }
+        Object[] page = values[entry >>> PAGE_SHIFT];
+        if (page == null) {
+            page = values[entry >>> PAGE_SHIFT] = new Object[PAGE_SIZE];
+        }
+        Object value = page[entry & (PAGE_SIZE - 1)];
+        if (value == null) {
+            int at = entriesOffset + entry * ENTRY_BYTES + 8;
+            value = buffer.getInt(at + 4) == NULL_LENGTH ? NULL_VALUE : valueCodec.decode(slice(valuesOffset, at));
+            if (value == null) {
+                value = NULL_VALUE;  // A codec may decode to null too; don't decode it again.
+            }
+            page[entry & (PAGE_SIZE - 1)] = value;
+        }
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    /**
+     * Gets the value associated with a key, decoding it on the first lookup.
+     *
+     * @param key The key
+     * @return The value associated with the key, or null if the key isn't in the snapshot or was
+     *         saved with a null value (contains tells the two apart)
+     */
+    public V get(K key) {
+        int entry = find(key);
+        return entry < 0 ? null : valueAt(entry);
+    }
+
+    /**
+     * Checks if the snapshot contains a key, without decoding its value.
+     *
+     * @param key The key to check
+     * @return true if the key is in the snapshot, false otherwise
+     */
+    public boolean contains(K key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns the number of entries in the snapshot.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes every key and value to the action, in the order they were saved. This decodes every
+     * entry.
+     *
+     * @param action Receives each key and its value
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int entry = 0; entry < size; entry++) {
+            action.accept(keyAt(entry), valueAt(entry));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.Arrays;
+
+/**
+ * MapStats is an immutable snapshot of a MyHashMap's statistics, returned by MyHashMap.stats().
+ * The shape of the table (capacity, occupied buckets, chain lengths) is measured when the
+ * snapshot is taken and is always available; the operation counters are only kept while metrics
+ * are enabled and are zero otherwise.
+ *
+ * The two histograms use MapMetrics' power-of-two buckets: chainLengths counts the occupied
+ * buckets by their number of entries, probeLengths counts gets by the number of nodes probed.
+ */
+public final class MapStats implements MapStatsMXBean {
+    private final boolean metricsEnabled;
+    private final int size;
+    private final int capacity;
+    private final int occupiedBuckets;
+    private final int treeBuckets;
+    private final int maxChainLength;
+    private final long[] chainLengths;
+    private final long resizeCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final long removeCount;
+    private final long[] probeLengths;
+
+    MapStats(MapMetrics metrics, int size, int capacity, int occupiedBuckets, int treeBuckets,
+            int maxChainLength, long[] chainLengths) {
+        this.metricsEnabled = metrics != null;
+        this.size = size;
+        this.capacity = capacity;
+        this.occupiedBuckets = occupiedBuckets;
+        this.treeBuckets = treeBuckets;
+        this.maxChainLength = maxChainLength;
+        this.chainLengths = chainLengths;
+        this.resizeCount = metrics == null ? 0 : metrics.resizes.sum();
+        this.hitCount = metrics == null ? 0 : metrics.hits.sum();
+        this.missCount = metrics == null ? 0 : metrics.misses.sum();
+        this.putCount = metrics == null ? 0 : metrics.puts.sum();
+        this.removeCount = metrics == null ? 0 : metrics.removes.sum();
+        this.probeLengths = metrics == null ? new long[MapMetrics.HISTOGRAM_BUCKETS] : metrics.probeLengths();
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getOccupiedBuckets() {
+        return occupiedBuckets;
+    }
+
+    /**
+     * Returns the fraction of buckets that hold at least one entry.
+     */
+    @Override
+    public double getOccupancy() {
+        return capacity == 0 ? 0 : (double) occupiedBuckets / capacity;
+    }
+
+    @Override
+    public int getTreeBuckets() {
+        return treeBuckets;
+    }
+
+    @Override
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    @Override
+    public long[] getChainLengths() {
+        return chainLengths.clone();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the fraction of gets that found their key, or 1 if there have been none.
+     */
+    @Override
+    public double getHitRate() {
+        long gets = hitCount + missCount;
+        return gets == 0 ? 1.0 : (double) hitCount / gets;
+    }
+
+    @Override
+    public long getPutCount() {
+        return putCount;
+    }
+
+    /**
+     * Returns the number of entries removed, whether by remove, by compute or merge returning
+     * null, through a cursor, or because they expired.
+     */
+    @Override
+    public long getRemoveCount() {
+        return removeCount;
+    }
+
+    @Override
+    public long[] getProbeLengths() {
+        return probeLengths.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "MapStats{size=" + size + ", capacity=" + capacity + ", occupiedBuckets=" + occupiedBuckets
+                + ", treeBuckets=" + treeBuckets + ", maxChainLength=" + maxChainLength
+                + ", chainLengths=" + Arrays.toString(chainLengths) + ", resizes=" + resizeCount
+                + ", hits=" + hitCount + ", misses=" + missCount + ", puts=" + putCount
+                + ", removes=" + removeCount + ", probeLengths=" + Arrays.toString(probeLengths) + "}";
+    }
+}
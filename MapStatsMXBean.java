@@ -0,0 +1,36 @@
+/**
+ * MapStatsMXBean is the JMX view of a MyHashMap's statistics. MyHashMap.registerMBean registers
+ * a live instance whose attributes are read from a fresh MapStats snapshot.
+ */
+public interface MapStatsMXBean {
+
+    boolean isMetricsEnabled();
+
+    int getSize();
+
+    int getCapacity();
+
+    int getOccupiedBuckets();
+
+    double getOccupancy();
+
+    int getTreeBuckets();
+
+    int getMaxChainLength();
+
+    long[] getChainLengths();
+
+    long getResizeCount();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getPutCount();
+
+    long getRemoveCount();
+
+    long[] getProbeLengths();
+}
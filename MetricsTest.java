@@ -0,0 +1,195 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * MetricsTest contains JUnit tests for the metrics of MyHashMap and GenericQueue: stats()
+ * snapshots, the MBeans and the JFR events.
+ */
+public class MetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testMapStatsWithoutMetrics() {
+        // Test that the table shape is reported while the counters stay at zero.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        for (int i = 1; i < 100; i++) {
+            map.put(i, i);
+            map.get(i);
+        }
+        MapStats stats = map.stats();
+        assertFalse(stats.isMetricsEnabled());
+        assertEquals(100, stats.getSize());
+        assertEquals(256, stats.getCapacity());
+        assertEquals(Arrays.stream(stats.getChainLengths()).sum(), stats.getOccupiedBuckets());
+        assertTrue(stats.getMaxChainLength() >= 1);
+        assertEquals(0, stats.getHitCount());
+        assertEquals(0, stats.getResizeCount());
+    }
+
+    @Test
+    void testMapCounters() {
+        // Test the operation counters and the probe-length histogram.
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(0, 0);
+        map.enableMetrics();
+        for (int i = 1; i < 100; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 150; i++) {
+            map.get(i);
+        }
+        map.remove(5);
+        map.remove(500);
+        MapStats stats = map.stats();
+        assertTrue(stats.isMetricsEnabled());
+        assertEquals(99, stats.getPutCount());
+        assertEquals(100, stats.getHitCount());
+        assertEquals(50, stats.getMissCount());
+        assertEquals(100.0 / 150, stats.getHitRate(), 1e-9);
+        assertEquals(1, stats.getRemoveCount());  // Removing a missing key is not counted.
+        assertEquals(4, stats.getResizeCount());  // 16 -> 256 buckets.
+        assertEquals(150, Arrays.stream(stats.getProbeLengths()).sum());
+        assertEquals(99, stats.getSize());
+    }
+
+    @Test
+    void testRemoveCountCoversEveryRemoval() {
+        // Test that removals by compute, merge, a cursor and expiry are counted, not just remove.
+        long[] now = { 0 };
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.setClock(() -> now[0]);
+        map.enableMetrics();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        map.remove(0);
+        map.compute(1, (key, value) -> null);
+        map.merge(2, 0, (a, b) -> null);
+        HMCursor<Integer, Integer> cursor = map.cursor();
+        while (cursor.next()) {
+            if (cursor.key() == 3) {
+                cursor.remove();
+            }
+        }
+        assertEquals(4, map.stats().getRemoveCount());
+
+        map.expireAfterWrite(1, java.util.concurrent.TimeUnit.SECONDS);
+        now[0] = java.util.concurrent.TimeUnit.SECONDS.toNanos(5);
+        map.cleanUp();
+        assertEquals(0, map.size());
+        assertEquals(10, map.stats().getRemoveCount());
+    }
+
+    @Test
+    void testQueueStats() {
+        // Test the enqueue and dequeue counts and the high-water mark across the bulk methods.
+        GenericQueue<Integer> queue = new GenericQueue<>();
+        queue.enqueue(-1);  // Before metrics: not counted.
+        queue.enableMetrics();
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(i);
+        }
+        queue.enqueueAll(List.of(10, 11, 12));
+        queue.dequeue();
+        queue.dequeue(5, value -> { });
+        GenericQueue<Integer> target = new GenericQueue<>();
+        queue.drainTo(target);
+        queue.dequeue();  // Empty: not counted.
+        QueueStats stats = queue.stats();
+        assertEquals(0, stats.getLength());
+        assertEquals(13, stats.getEnqueueCount());
+        assertEquals(14, stats.getDequeueCount());
+        assertEquals(14, stats.getHighWaterMark());
+        assertTrue(stats.getEnqueueRate() > 0);
+        assertFalse(target.stats().isMetricsEnabled());
+    }
+
+    @Test
+    void testMBeans() throws JMException {
+        // Test that the MBeans are live views of the structures.
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        MyHashMap<String, Integer> map = new MyHashMap<>("a", 1);
+        GenericQueue<String> queue = new GenericQueue<>();
+        ObjectName mapName = map.registerMBean("metrics-test");
+        ObjectName queueName = queue.registerMBean("metrics-test");
+        try {
+            map.get("a");
+            map.get("b");
+            queue.enqueue("x");
+            assertEquals(1L, server.getAttribute(mapName, "HitCount"));
+            assertEquals(1L, server.getAttribute(mapName, "MissCount"));
+            assertEquals(1, server.getAttribute(mapName, "Size"));
+            map.put("b", 2);
+            assertEquals(2, server.getAttribute(mapName, "Size"));
+            assertEquals(1, server.getAttribute(queueName, "Length"));
+            assertEquals(1L, server.getAttribute(queueName, "EnqueueCount"));
+            assertThrows(IllegalArgumentException.class, () -> map.registerMBean("metrics-test"));
+        } finally {
+            server.unregisterMBean(mapName);
+            server.unregisterMBean(queueName);
+        }
+    }
+
+    @Test
+    void testFlightRecorderEvents() throws IOException {
+        // Test that resizes and long-chain lookups are recorded as JFR events.
+        HashingStrategy<String> colliding = new HashingStrategy<String>() {
+            @Override
+            public int hash(String key) {
+                return 42;
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equals(b);
+            }
+        };
+        Path file = dir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("MyHashMap.Rehash");
+            recording.enable("MyHashMap.LongChainLookup");
+            recording.start();
+            MyHashMap<Integer, Integer> growing = new MyHashMap<>(0, 0);
+            for (int i = 1; i < 100; i++) {
+                growing.put(i, i);
+            }
+            MyHashMap<String, Integer> chained = new MyHashMap<>("k0", 0, colliding);
+            chained.enableMetrics();
+            for (int i = 1; i < 8; i++) {
+                chained.put("k" + i, i);
+            }
+            chained.get("k7");      // Eighth node of the chain.
+            chained.get("missing"); // Probes all eight.
+            chained.get("k0");      // First node: not reported.
+            recording.stop();
+            recording.dump(file);
+        }
+        int rehashes = 0;
+        int longChains = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            String name = event.getEventType().getName();
+            if (name.equals("MyHashMap.Rehash")) {
+                rehashes++;
+                assertEquals(2 * event.getInt("oldCapacity"), event.getInt("newCapacity"));
+            } else if (name.equals("MyHashMap.LongChainLookup")) {
+                longChains++;
+                assertEquals(8, event.getInt("probes"));
+            }
+        }
+        assertEquals(4, rehashes);
+        assertEquals(2, longChains);
+    }
+}
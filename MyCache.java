@@ -0,0 +1,371 @@
+import java.util.function.ToIntBiFunction;
+
+/**
+ * MyCache is a bounded cache that evicts entries once their total weight goes over a maximum.
+ * Keys are indexed by a MyHashMap that maps each key to its node in a recency list. The lists are
+ * GenericQueues, and the nodes are linked straight into them with addNode and unlink, so a hit
+ * moves its node to the back of the list in O(1) without allocating.
+ *
+ * By default every entry weighs 1, so the maximum is an entry count, and the cache is a plain
+ * LRU: one list, the least recently used entry is evicted first. A weigher can give entries
+ * other weights (for example their size in bytes).
+ *
+ * With admission enabled the cache follows the W-TinyLFU policy. New entries go into a small LRU
+ * window (1% of the maximum). Entries pushed out of the window join the probation segment of the
+ * main area and have to compete with its least recently used entry: a FrequencySketch estimates
+ * how often each key has been requested recently, and the less popular of the two is evicted.
+ * Entries hit again while on probation move to the protected segment (80% of the main area).
+ * This keeps one-off keys from flushing out popular ones, which a plain LRU cannot do.
+ *
+ * @param <K> The type of keys in the cache
+ * @param <V> The type of values stored in the cache
+ */
+public class MyCache<K, V> {
+    private static final int WINDOW = 0;      // Region of new entries (the whole cache in LRU mode).
+    private static final int PROBATION = 1;   // Main-area entries that have not been hit since admission.
+    private static final int PROTECTED = 2;   // Main-area entries hit at least once since admission.
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    private static final int MAXIMUM_SKETCH_ENTRIES = 1 << 20;  // Caps the sketch for byte-sized weights.
+
+    private MyHashMap<K, CacheNode<K, V>> index;  // Created with the first entry.
+    private final GenericQueue<MyHashMap.MapEntry<K, V>> window = new GenericQueue<>();
+    private final GenericQueue<MyHashMap.MapEntry<K, V>> probation = new GenericQueue<>();
+    private final GenericQueue<MyHashMap.MapEntry<K, V>> protectedQueue = new GenericQueue<>();
+    private final ToIntBiFunction<? super K, ? super V> weigher;  // Null means every entry weighs 1.
+    private final FrequencySketch sketch;  // Null when admission is disabled.
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private long weight;           // Total weight of all entries.
+    private long windowWeight;
+    private long protectedWeight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * CacheNode is a recency list node that also remembers its weight and which list it is in.
+     *
+     * @param <K> The type of the key
+     * @param <V> The type of the value
+     */
+    static final class CacheNode<K, V> extends GenericList.Node<MyHashMap.MapEntry<K, V>> {
+        int weight;
+        int region;
+
+        CacheNode(MyHashMap.MapEntry<K, V> data, int code) {
+            super(data, code);
+        }
+    }
+
+    /**
+     * Constructor for an LRU cache holding at most a number of entries.
+     *
+     * @param maximumSize The maximum number of entries
+     */
+    public MyCache(int maximumSize) {
+        this(maximumSize, null, false);
+    }
+
+    /**
+     * Constructor for a cache holding at most a number of entries.
+     *
+     * @param maximumSize The maximum number of entries
+     * @param admission true to use the W-TinyLFU admission policy, false for plain LRU
+     */
+    public MyCache(int maximumSize, boolean admission) {
+        this(maximumSize, null, admission);
+    }
+
+    /**
+     * Constructor for a cache whose entries have a weight.
+     *
+     * @param maximumWeight The maximum total weight of the entries
+     * @param weigher Computes the weight of an entry, or null if every entry weighs 1
+     * @param admission true to use the W-TinyLFU admission policy, false for plain LRU
+     */
+    public MyCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, boolean admission) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Illegal maximum weight: " + maximumWeight);
+        }
+        this.maximum = maximumWeight;
+        this.weigher = weigher;
+        if (admission) {
+            this.windowMaximum = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+            this.protectedMaximum = (maximumWeight - windowMaximum) * PROTECTED_PERCENT / 100;
+            this.sketch = new FrequencySketch((int) Math.min(maximumWeight, MAXIMUM_SKETCH_ENTRIES));
+        } else {
+            this.windowMaximum = maximumWeight;
+            this.protectedMaximum = 0;
+            this.sketch = null;
+        }
+    }
+
+    /**
+     * Returns the list holding the nodes of a region.
+     */
+    private GenericQueue<MyHashMap.MapEntry<K, V>> queueOf(int region) {
+        return region == WINDOW ? window : region == PROBATION ? probation : protectedQueue;
+    }
+
+    /**
+     * Links a node onto the back of a region's list and accounts for its weight.
+     */
+    private void link(CacheNode<K, V> node, int region) {
+        node.region = region;
+        queueOf(region).addNode(node);
+        if (region == WINDOW) {
+            windowWeight += node.weight;
+        } else if (region == PROTECTED) {
+            protectedWeight += node.weight;
+        }
+    }
+
+    /**
+     * Unlinks a node from its region's list and takes its weight off that region.
+     */
+    private void unlink(CacheNode<K, V> node) {
+        queueOf(node.region).unlink(node);
+        if (node.region == WINDOW) {
+            windowWeight -= node.weight;
+        } else if (node.region == PROTECTED) {
+            protectedWeight -= node.weight;
+        }
+    }
+
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0) {
+            throw new IllegalArgumentException("Negative weight for key: " + key);
+        }
+        return w;
+    }
+
+    /**
+     * Gets the value associated with a key and marks the entry as recently used.
+     *
+     * @param key The key
+     * @return The value associated with the key, or null if the key isn't cached
+     */
+    public V get(K key) {
+        if (sketch != null) {
+            sketch.increment(MyHashMap.hash(key));  // Misses count too: they are what admission weighs.
+        }
+        CacheNode<K, V> node = index == null ? null : index.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node.data.value;
+    }
+
+    /**
+     * Puts a key-value pair into the cache, evicting entries if it grows over the maximum. An
+     * entry that alone weighs more than the maximum is not kept.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        int hashCode = MyHashMap.hash(key);
+        if (sketch != null) {
+            sketch.increment(hashCode);
+        }
+        int w = weigh(key, value);
+        CacheNode<K, V> node = index == null ? null : index.get(key);
+        if (w > maximum) {
+            if (node != null) {
+                discard(node);
+            }
+            evictionCount++;
+            return;
+        }
+        if (node != null) {
+            node.data.value = value; // Update the value for existing key
+            unlink(node);
+            weight += w - node.weight;
+            node.weight = w;
+            link(node, node.region);
+            onAccess(node);
+        } else {
+            node = new CacheNode<>(new MyHashMap.MapEntry<>(key, value), hashCode);
+            node.weight = w;
+            if (index == null) {
+                index = new MyHashMap<>(key, node);
+            } else {
+                index.put(key, node);
+            }
+            weight += w;
+            link(node, WINDOW);
+        }
+        evict();
+    }
+
+    /**
+     * Checks if the cache contains a key, without counting a hit or miss or changing its recency.
+     *
+     * @param key The key to check
+     * @return true if the key is cached, false otherwise
+     */
+    public boolean contains(K key) {
+        return index != null && index.contains(key);
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key The key
+     * @return The value that was associated with the key, or null if the key wasn't cached
+     */
+    public V remove(K key) {
+        CacheNode<K, V> node = index == null ? null : index.get(key);
+        if (node == null) {
+            return null;
+        }
+        discard(node);
+        return node.data.value;
+    }
+
+    /**
+     * Moves a node that was just used to the back of its list, promoting it from probation to
+     * the protected segment.
+     */
+    private void onAccess(CacheNode<K, V> node) {
+        int region = node.region;
+        unlink(node);
+        if (region != PROBATION) {
+            link(node, region);
+            return;
+        }
+        link(node, PROTECTED);
+        while (protectedWeight > protectedMaximum) {
+            // Demote the least recently used protected entry back to probation.
+            CacheNode<K, V> demoted = (CacheNode<K, V>) protectedQueue.getHead();
+            unlink(demoted);
+            link(demoted, PROBATION);
+        }
+    }
+
+    /**
+     * Evicts entries until the total weight is within the maximum.
+     */
+    private void evict() {
+        if (sketch == null) {
+            while (weight > maximum) {
+                evictNode((CacheNode<K, V>) window.getHead());
+            }
+            return;
+        }
+        CacheNode<K, V> candidate = null;  // First entry this call moved out of the window.
+        while (windowWeight > windowMaximum) {
+            // The window's least recently used entry becomes a candidate for the main area.
+            CacheNode<K, V> moved = (CacheNode<K, V>) window.getHead();
+            unlink(moved);
+            link(moved, PROBATION);
+            if (candidate == null) {
+                candidate = moved;
+            }
+        }
+        // The candidates sit together at the back of probation, behind any entries demoted from
+        // the protected segment, so they are walked from the first one towards the tail.
+        while (weight > maximum) {
+            CacheNode<K, V> victim = (CacheNode<K, V>) probation.getHead();
+            if (victim == null) {
+                victim = (CacheNode<K, V>) (protectedQueue.getLength() > 0 ? protectedQueue.getHead() : window.getHead());
+                evictNode(victim);
+                continue;
+            }
+            if (candidate == null || candidate == victim) {
+                // No admitted entry left to compete with: the oldest probation entry goes.
+                if (candidate == victim) {
+                    candidate = (CacheNode<K, V>) victim.next;
+                }
+                evictNode(victim);
+            } else if (sketch.frequency(candidate.code) > sketch.frequency(victim.code)) {
+                evictNode(victim);  // The candidate is more popular than the oldest probation entry.
+            } else {
+                CacheNode<K, V> next = (CacheNode<K, V>) candidate.next;
+                evictNode(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void evictNode(CacheNode<K, V> node) {
+        discard(node);
+        evictionCount++;
+    }
+
+    /**
+     * Removes a node from its list and from the index.
+     */
+    private void discard(CacheNode<K, V> node) {
+        unlink(node);
+        index.remove(node.data.key);
+        weight -= node.weight;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Returns the total weight of the entries in the cache; the entry count if there is no weigher.
+     *
+     * @return The total weight
+     */
+    public long weight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of get calls that found their key.
+     *
+     * @return The number of hits
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of get calls that did not find their key.
+     *
+     * @return The number of misses
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to stay within the maximum.
+     *
+     * @return The number of evictions
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the fraction of get calls that were hits, or 1 if there have been none.
+     *
+     * @return The hit rate
+     */
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+}
@@ -1,29 +1,101 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.management.ObjectName;
 
 /**
  * MyHashMap class implements a custom HashMap data structure.
- * It uses an ArrayList of GenericQueues to handle collisions.
+ * It uses an ArrayList of GenericQueues to handle collisions. The number of buckets is always a
+ * power of two and doubles once the number of entries exceeds the load factor, so chains stay
+ * short as the map grows.
  *
- * @param <T> The type of values stored in the HashMap
+ * A bucket whose chain grows past TREEIFY_THRESHOLD entries is converted to a TreeBucket, which
+ * also indexes its entries in a balanced tree, so even a set of deliberately colliding keys
+ * costs O(log n) per lookup rather than a scan of the whole chain.
+ *
+ * Keys are compared with their own hashCode and equals unless a HashingStrategy is given, which
+ * lets callers use precomputed hashes, identity semantics or case-insensitive matching without
+ * wrapping their keys.
+ *
+ * Entries can be made to expire a fixed time after they were written or last read. Expiration
+ * is driven by a TimingWheel, so removing expired entries costs time in proportion to the number
+ * that expire rather than to the size of the map. An expired entry is never returned by a lookup,
+ * but it stays in the map, and is counted by size() and visited by iterators, until the wheel
+ * removes it on the next write or cleanUp() call.
+ *
+ * iterator() is fail-fast: adding or removing a key while iterating makes it throw a
+ * ConcurrentModificationException. snapshotIterator() is for readers that must not stop writers;
+ * it copies only the bucket heads, never throws, and sees every entry that was in the map when it
+ * was created and is still there when it is reached, exactly once. Entries added or removed after
+ * it was created may or may not be seen.
+ *
+ * save writes the map to a binary file that MapSnapshot can map and query in place, so a restart
+ * doesn't have to put every entry again.
+ *
+ * A map that will hold a known number of entries can be created with that size, or loaded with
+ * one of the putAll methods, so its table is allocated or grown once instead of doubling step by
+ * step. putAllUnique also skips looking each key up when the caller knows the keys are new.
+ *
+ * stats() reports the shape of the table. enableMetrics() also turns on operation counters and a
+ * probe-length histogram, readable through stats() or an MBean; until then the only cost is a
+ * null check. Every resize is reported to Java Flight Recorder as a MyHashMap.Rehash event.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
  */
-public class MyHashMap<T> implements Iterable<T> {
-    private ArrayList<GenericQueue<MapEntry<T>>> map;
+public class MyHashMap<K, V> implements Iterable<V> {
+    private static final int DEFAULT_CAPACITY = 16;         // Initial number of buckets (power of two).
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f; // Entries per bucket before the table grows.
+    private static final int MAXIMUM_CAPACITY = 1 << 30;    // Largest table we will allocate.
+    static final int TREEIFY_THRESHOLD = 8;       // Chain length at which a bucket becomes a tree.
+    static final int UNTREEIFY_THRESHOLD = 6;     // Tree size at which a bucket goes back to a chain.
+    static final int MIN_TREEIFY_CAPACITY = 64;   // Smaller tables grow instead of treeifying.
+
+    private ArrayList<GenericQueue<MapEntry<K, V>>> map;
+    private final HashingStrategy<? super K> strategy;  // Null means the keys' own hashCode/equals.
     private int size;
+    private int modCount;         // Number of structural changes, for fail-fast iterators.
+    private boolean sharedNodes;  // A snapshot iterator may be walking the current nodes.
+    private final float loadFactor;
+    private TimingWheel<K, V> expiry;  // Null until expiration is enabled.
+    private LongSupplier clock = System::nanoTime;
+    private int threshold;  // Size at which the table is doubled.
+    private MapMetrics metrics;  // Null until metrics are enabled.
 
     /**
      * MapEntry class represents a key-value pair in the HashMap.
      *
-     * @param <T> The type of the value
+     * @param <K> The type of the key
+     * @param <V> The type of the value
      */
-    public static class MapEntry<T> {
-        String key;
-        T value;
+    public static class MapEntry<K, V> {
+        K key;
+        V value;
 
-        MapEntry(String key, T value) {
+        MapEntry(K key, V value) {
             this.key = key;
             this.value = value;
         }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
     }
 
     /**
@@ -32,63 +104,580 @@ public class MyHashMap<T> implements Iterable<T> {
      * @param key The initial key
      * @param value The initial value
      */
-    public MyHashMap(String key, T value) {
-        map = new ArrayList<>(10);
-        for (int i = 0; i < 10; i++) {
-            map.add(null);
-        }
+    public MyHashMap(K key, V value) {
+        this(key, value, null);
+    }
+
+    /**
+     * Constructor for MyHashMap with a custom hashing strategy.
+     *
+     * @param key The initial key
+     * @param value The initial value
+     * @param strategy The hash and equality to use for keys, or null for hashCode/equals
+     */
+    public MyHashMap(K key, V value, HashingStrategy<? super K> strategy) {
+        this(DEFAULT_LOAD_FACTOR, DEFAULT_CAPACITY, strategy);
         put(key, value);
     }
 
     /**
-     * Puts a key-value pair into the HashMap.
+     * Constructor for an empty MyHashMap.
+     */
+    public MyHashMap() {
+        this(DEFAULT_LOAD_FACTOR, DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * Constructor for an empty MyHashMap with a custom hashing strategy.
+     *
+     * @param strategy The hash and equality to use for keys, or null for hashCode/equals
+     */
+    public MyHashMap(HashingStrategy<? super K> strategy) {
+        this(DEFAULT_LOAD_FACTOR, DEFAULT_CAPACITY, strategy);
+    }
+
+    /**
+     * Constructor for an empty MyHashMap whose table is sized so that it holds a number of
+     * entries without growing.
+     *
+     * @param expectedSize The number of entries expected
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public MyHashMap(int expectedSize) {
+        this(DEFAULT_LOAD_FACTOR, capacityFor(expectedSize, DEFAULT_LOAD_FACTOR), null);
+    }
+
+    /**
+     * Creates an empty MyHashMap that holds a number of entries without growing and grows once
+     * it has more than loadFactor entries per bucket. This is a factory rather than a
+     * constructor because a constructor taking (int, float) would also match
+     * new MyHashMap<>(0, 0) calls meant as a first key and value.
+     *
+     * @param expectedSize The number of entries expected
+     * @param loadFactor The number of entries per bucket at which the table doubles
+     * @param <K> The type of keys
+     * @param <V> The type of values
+     * @return The empty map
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor isn't positive
+     */
+    public static <K, V> MyHashMap<K, V> withExpectedSize(int expectedSize, float loadFactor) {
+        return withExpectedSize(expectedSize, loadFactor, null);
+    }
+
+    /**
+     * Creates an empty MyHashMap with a custom hashing strategy that holds a number of entries
+     * without growing.
+     *
+     * @param expectedSize The number of entries expected
+     * @param loadFactor The number of entries per bucket at which the table doubles
+     * @param strategy The hash and equality to use for keys, or null for hashCode/equals
+     * @param <K> The type of keys
+     * @param <V> The type of values
+     * @return The empty map
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor isn't positive
+     */
+    public static <K, V> MyHashMap<K, V> withExpectedSize(int expectedSize, float loadFactor, HashingStrategy<? super K> strategy) {
+        return new MyHashMap<>(loadFactor, capacityFor(expectedSize, loadFactor), strategy);
+    }
+
+    private MyHashMap(float loadFactor, int capacity, HashingStrategy<? super K> strategy) {
+        this.loadFactor = loadFactor;
+        this.strategy = strategy;
+        map = newTable(capacity);
+        threshold = capacity >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * loadFactor);
+    }
+
+    /**
+     * Returns the smallest power-of-two number of buckets that holds expectedSize entries
+     * without going over the load factor.
+     */
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        if (!(loadFactor > 0)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        double buckets = Math.ceil(expectedSize / (double) loadFactor);
+        if (buckets >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        int capacity = 1;
+        while (capacity < MAXIMUM_CAPACITY && (capacity < buckets || (int) (capacity * loadFactor) < expectedSize)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads the higher bits of a hash code into the lower bits. Bucket indexes are taken from
+     * the low bits only, so without this, keys that differ only in their upper bits would all
+     * collide.
+     *
+     * @param h The hash code
+     * @return The spread hash code
+     */
+    static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the spread hashCode of a key, as used by the maps without a hashing strategy.
      *
      * @param key The key
-     * @param value The value
+     * @return The spread hash code
      */
-    public void put(String key, T value) {
-        int hashCode = key.hashCode();
-        int index = hashCode & 9; // This ensures that hash values are in the range [0,9]
-    
-        if (map.get(index) == null) {
-            map.set(index, new GenericQueue<>(new MapEntry<>(key, value)));
+    static int hash(Object key) {
+        return spread(key.hashCode());
+    }
+
+    /**
+     * Returns the spread hash of a key under a hashing strategy, as cached in the code field of
+     * the key's node.
+     *
+     * @param key The key
+     * @param strategy The hashing strategy, or null for hashCode
+     * @return The spread hash code
+     */
+    static <K> int hash(K key, HashingStrategy<? super K> strategy) {
+        return strategy == null ? spread(key.hashCode()) : spread(strategy.hash(key));
+    }
+
+    /**
+     * Returns the spread hash of a key under this map's strategy.
+     */
+    private int hashOf(K key) {
+        return hash(key, strategy);
+    }
+
+    /**
+     * Compares a stored key with a looked-up key under this map's strategy.
+     */
+    private boolean keysEqual(K stored, K key) {
+        return strategy == null ? stored.equals(key) : strategy.equals(stored, key);
+    }
+
+    /**
+     * Creates a table of the given (power of two) number of empty buckets.
+     */
+    private static <K, V> ArrayList<GenericQueue<MapEntry<K, V>>> newTable(int capacity) {
+        ArrayList<GenericQueue<MapEntry<K, V>>> table = new ArrayList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            table.add(null);
+        }
+        return table;
+    }
+
+    /**
+     * Grows the table to a larger power-of-two number of buckets, usually double. Each node is
+     * moved using the hash code cached in its code field, so keys are never rehashed and no new
+     * nodes are allocated. Split chains that are still long are turned back into trees; shorter
+     * ones stay plain chains.
+     *
+     * Moving a node relinks it, which would send a snapshot iterator walking the old chains
+     * into the wrong bucket. So if a snapshot iterator has been created since the last resize,
+     * the nodes are copied instead and the old chains are left as they were.
+     */
+    private void resize(int newCapacity) {
+        int oldCapacity = map.size();
+        if (oldCapacity >= MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        MapMetrics.RehashEvent event = new MapMetrics.RehashEvent();
+        event.begin();
+        ArrayList<GenericQueue<MapEntry<K, V>>> newMap = newTable(newCapacity);
+        for (GenericQueue<MapEntry<K, V>> bucket : map) {
+            if (bucket == null) {
+                continue;
+            }
+            GenericList.Node<MapEntry<K, V>> node = bucket.getHead();
+            while (node != null) {
+                GenericList.Node<MapEntry<K, V>> next = node.next;
+                int index = node.code & (newCapacity - 1);
+                GenericQueue<MapEntry<K, V>> target = newMap.get(index);
+                if (target == null) {
+                    target = new GenericQueue<>();
+                    newMap.set(index, target);
+                }
+                target.addNode(sharedNodes ? new GenericList.Node<>(node.data, node.code) : node);
+                node = next;
+            }
+        }
+        for (int i = 0; i < newCapacity; i++) {
+            GenericQueue<MapEntry<K, V>> bucket = newMap.get(i);
+            if (bucket != null && bucket.getLength() > UNTREEIFY_THRESHOLD
+                    && (bucket.getLength() >= TREEIFY_THRESHOLD || bucket.getHead() instanceof TreeBucket.TreeNode)) {
+                newMap.set(i, TreeBucket.treeify(bucket, strategy));  // Came from a tree or is long anyway.
+            }
+        }
+        map = newMap;
+        sharedNodes = false;
+        threshold = newCapacity >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (newCapacity * loadFactor);
+        if (metrics != null) {
+            metrics.resizes.increment();
+        }
+        if (event.shouldCommit()) {
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Finds the node holding a key by walking its bucket's chain directly. The cached hash code
+     * is compared before the key, and no iterator is created, so lookups allocate nothing.
+     *
+     * @param key The key
+     * @param hashCode The spread hash code of the key
+     * @return The node holding the key, or null if the key doesn't exist
+     */
+    private GenericList.Node<MapEntry<K, V>> findNode(K key, int hashCode) {
+        return findInBucket(map.get(hashCode & (map.size() - 1)), key, hashCode);
+    }
+
+    /**
+     * Finds the node holding a key within one bucket, which may be null.
+     */
+    private GenericList.Node<MapEntry<K, V>> findInBucket(GenericQueue<MapEntry<K, V>> bucket, K key, int hashCode) {
+        if (bucket == null) {
+            return null;
+        }
+        if (bucket instanceof TreeBucket) {
+            return ((TreeBucket<K, V>) bucket).find(key, hashCode);
+        }
+        for (GenericList.Node<MapEntry<K, V>> node = bucket.getHead(); node != null; node = node.next) {
+            if (node.code == hashCode && keysEqual(node.data.key, key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a new entry for a key known not to be in the map, treeifying or growing as needed.
+     */
+    private void insert(K key, V value, int hashCode) {
+        int index = hashCode & (map.size() - 1);
+        GenericQueue<MapEntry<K, V>> bucket = map.get(index);
+        MapEntry<K, V> entry = expiry == null ? new MapEntry<>(key, value) : expiry.newEntry(key, value);
+        modCount++;
+        if (bucket == null) {
+            map.set(index, new GenericQueue<>(entry, hashCode));
         } else {
-            GenericQueue<MapEntry<T>> bucket = map.get(index);
-            
-            // Check if the key already exists in the bucket
-            for (MapEntry<T> entry : bucket) {
-                if (entry.key.equals(key)) {
-                    entry.value = value; // Update the value for existing key
+            bucket.add(entry, hashCode);
+            if (bucket.getLength() > TREEIFY_THRESHOLD && !(bucket instanceof TreeBucket)) {
+                if (map.size() < MIN_TREEIFY_CAPACITY) {
+                    size++;
+                    resize(map.size() << 1);  // Small tables spread a long chain by growing instead.
                     return;
                 }
+                map.set(index, TreeBucket.treeify(bucket, strategy));
             }
-    
-            // If no existing key is found, add a new entry
-            bucket.add(new MapEntry<>(key, value), hashCode);
         }
-        size++;
+        if (++size > threshold) {
+            resize(map.size() << 1);
+        }
     }
-    
+
     /**
-     * Checks if the HashMap contains a specific key.
+     * Unlinks a node from its bucket in place, dropping the bucket if it becomes empty and
+     * turning a tree that has shrunk back into a chain.
+     */
+    private void unlinkNode(int index, GenericQueue<MapEntry<K, V>> bucket, GenericList.Node<MapEntry<K, V>> node) {
+        bucket.unlink(node);
+        size--;
+        modCount++;
+        if (metrics != null) {
+            metrics.removes.increment();
+        }
+        if (expiry != null) {
+            expiry.deschedule(node.data);
+        }
+        if (bucket.getLength() == 0) {
+            map.set(index, null);
+        } else if (bucket instanceof TreeBucket && bucket.getLength() < UNTREEIFY_THRESHOLD) {
+            map.set(index, ((TreeBucket<K, V>) bucket).untreeify());
+        }
+    }
+
+    /**
+     * Puts a key-value pair into the HashMap.
      *
-     * @param key The key to check
-     * @return true if the key exists, false otherwise
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        cleanUp();
+        if (metrics != null) {
+            metrics.puts.increment();
+        }
+        putHashed(key, value, hashOf(key));
+    }
+
+    /**
+     * Puts a key-value pair whose spread hash is already known.
+     */
+    private void putHashed(K key, V value, int hashCode) {
+        GenericList.Node<MapEntry<K, V>> existing = findNode(key, hashCode);
+        if (existing != null) {
+            existing.data.value = value; // Update the value for existing key
+            written(existing.data);  // An expired entry starts over as if it were new.
+            return;
+        }
+
+        // If no existing key is found, add a new entry
+        insert(key, value, hashCode);
+    }
+
+    /**
+     * Grows the table in one step, if needed, so that it holds a number of entries without
+     * growing again.
+     */
+    private void ensureCapacity(long expectedSize) {
+        if (expectedSize > threshold) {
+            int capacity = capacityFor((int) Math.min(expectedSize, Integer.MAX_VALUE), loadFactor);
+            if (capacity > map.size()) {
+                resize(capacity);
+            }
+        }
+    }
+
+    /**
+     * Starts a bulk load of count entries: removes expired entries, counts the puts and sizes
+     * the table once.
+     */
+    private void beginBulkLoad(int count) {
+        cleanUp();
+        if (metrics != null) {
+            metrics.puts.add(count);
+        }
+        ensureCapacity((long) size + count);
+    }
+
+    /**
+     * Puts every key-value pair of a java.util.Map, growing the table once beforehand.
+     *
+     * @param source The pairs to put
+     */
+    public void putAll(Map<? extends K, ? extends V> source) {
+        beginBulkLoad(source.size());
+        for (Map.Entry<? extends K, ? extends V> entry : source.entrySet()) {
+            putHashed(entry.getKey(), entry.getValue(), hashOf(entry.getKey()));
+        }
+    }
+
+    /**
+     * Puts every entry of another MyHashMap, growing the table once beforehand. If both maps
+     * use the same hashing strategy the cached hash codes are reused, and if this map is empty
+     * as well, the keys are known to be distinct and are inserted without being looked up.
+     *
+     * @param source The map to copy
+     */
+    public void putAll(MyHashMap<? extends K, ? extends V> source) {
+        if (source != this) {
+            copyFrom(source);
+        }
+    }
+
+    private <K2 extends K, V2 extends V> void copyFrom(MyHashMap<K2, V2> source) {
+        beginBulkLoad(source.size);
+        boolean sameHashes = source.strategy == strategy;
+        boolean distinct = sameHashes && size == 0;
+        for (GenericQueue<MapEntry<K2, V2>> bucket : source.map) {
+            for (GenericList.Node<MapEntry<K2, V2>> node = bucket == null ? null : bucket.getHead(); node != null; node = node.next) {
+                if (!source.isLive(node)) {
+                    continue;
+                }
+                int hashCode = sameHashes ? node.code : hashOf(node.data.key);
+                if (distinct) {
+                    insert(node.data.key, node.data.value, hashCode);
+                } else {
+                    putHashed(node.data.key, node.data.value, hashCode);
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts keys[i] and values[i] for every i, growing the table once beforehand.
+     *
+     * @param keys The keys
+     * @param values The values, in the same order
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public void putAll(K[] keys, V[] values) {
+        checkSameLength(keys, values);
+        beginBulkLoad(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            putHashed(keys[i], values[i], hashOf(keys[i]));
+        }
+    }
+
+    /**
+     * Bulk loads keys[i] and values[i] for every i without looking any key up first: the table
+     * is grown once and each entry is linked straight into its bucket. The caller asserts that
+     * the keys are distinct from each other and from the keys already in the map; if they are
+     * not, the map ends up holding duplicate entries.
+     *
+     * @param keys The keys, all distinct and not yet in the map
+     * @param values The values, in the same order
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public void putAllUnique(K[] keys, V[] values) {
+        checkSameLength(keys, values);
+        beginBulkLoad(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            insert(keys[i], values[i], hashOf(keys[i]));
+        }
+    }
+
+    private static void checkSameLength(Object[] keys, Object[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException(keys.length + " keys but " + values.length + " values");
+        }
+    }
+
+    /**
+     * Removes a key and its value. The entry's node is unlinked from its bucket in place, so
+     * this costs a single lookup.
+     *
+     * @param key The key
+     * @return The value that was associated with the key, or null if the key doesn't exist
+     */
+    public V remove(K key) {
+        cleanUp();
+        int hashCode = hashOf(key);
+        int index = hashCode & (map.size() - 1);
+        GenericQueue<MapEntry<K, V>> bucket = map.get(index);
+        GenericList.Node<MapEntry<K, V>> node = findInBucket(bucket, key, hashCode);
+        if (node == null) {
+            return null;
+        }
+        V value = isLive(node) ? node.data.value : null;
+        unlinkNode(index, bucket, node);
+        return value;
+    }
+
+    /**
+     * Returns the value for a key, first computing and storing it if the key is missing or
+     * mapped to null. A null result from the function stores nothing.
+     *
+     * @param key The key
+     * @param mappingFunction Computes the value from the key
+     * @return The current (existing or computed) value, or null
+     * @throws ConcurrentModificationException if the function modifies this map
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        cleanUp();
+        int hashCode = hashOf(key);
+        GenericList.Node<MapEntry<K, V>> node = findNode(key, hashCode);
+        if (isLive(node) && node.data.value != null) {
+            accessed(node.data);
+            return node.data.value;
+        }
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        checkNotModified(expectedModCount);
+        if (value == null) {
+            return null;
+        }
+        if (node != null) {
+            node.data.value = value;
+            written(node.data);
+        } else {
+            insert(key, value, hashCode);
+        }
+        return value;
+    }
+
+    /**
+     * Computes a new value for a key from its current value (null if missing) with a single
+     * lookup. A null result removes the key.
+     *
+     * @param key The key
+     * @param remappingFunction Computes the new value from the key and the current value
+     * @return The new value, or null if the key was removed or never added
+     * @throws ConcurrentModificationException if the function modifies this map
      */
-    public boolean contains(String key) {
-        int hashCode = key.hashCode();
-        int index = hashCode & 9;
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        cleanUp();
+        int hashCode = hashOf(key);
+        int index = hashCode & (map.size() - 1);
+        GenericQueue<MapEntry<K, V>> bucket = map.get(index);
+        GenericList.Node<MapEntry<K, V>> node = findInBucket(bucket, key, hashCode);
+        int expectedModCount = modCount;
+        V value = remappingFunction.apply(key, isLive(node) ? node.data.value : null);
+        checkNotModified(expectedModCount);
+        return store(key, hashCode, index, bucket, node, value);
+    }
 
-        if (map.get(index) == null) {
-            return false;
+    /**
+     * Stores a value for a key that is missing, or combines it with the existing value, with a
+     * single lookup. A null result from the function removes the key. Counters are a one-liner:
+     * merge(key, 1, Integer::sum).
+     *
+     * @param key The key
+     * @param value The value to store if the key is missing or mapped to null
+     * @param remappingFunction Combines the existing value with the given one
+     * @return The new value, or null if the key was removed
+     * @throws ConcurrentModificationException if the function modifies this map
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null) {
+            throw new NullPointerException("merge value must not be null");
+        }
+        cleanUp();
+        int hashCode = hashOf(key);
+        int index = hashCode & (map.size() - 1);
+        GenericQueue<MapEntry<K, V>> bucket = map.get(index);
+        GenericList.Node<MapEntry<K, V>> node = findInBucket(bucket, key, hashCode);
+        V newValue = value;
+        if (isLive(node) && node.data.value != null) {
+            int expectedModCount = modCount;
+            newValue = remappingFunction.apply(node.data.value, value);
+            checkNotModified(expectedModCount);
         }
+        return store(key, hashCode, index, bucket, node, newValue);
+    }
 
-        for (MapEntry<T> entry : map.get(index)) {
-            if (entry.key.equals(key)) {
-                return true;
+    /**
+     * Applies the result of compute or merge to the node found by the earlier lookup.
+     */
+    private V store(K key, int hashCode, int index, GenericQueue<MapEntry<K, V>> bucket,
+                    GenericList.Node<MapEntry<K, V>> node, V value) {
+        if (node == null) {
+            if (value != null) {
+                insert(key, value, hashCode);
             }
+        } else if (value == null) {
+            unlinkNode(index, bucket, node);
+        } else {
+            node.data.value = value;
+            written(node.data);
         }
-        return false;
+        return value;
+    }
+
+    /**
+     * Fails if a user function changed the map's structure since a lookup was made, because
+     * the node, bucket and index found by that lookup may no longer be valid.
+     */
+    private void checkNotModified(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Map modified by a compute or merge function");
+        }
+    }
+    
+    /**
+     * Checks if the HashMap contains a specific key.
+     *
+     * @param key The key to check
+     * @return true if the key exists, false otherwise
+     */
+    public boolean contains(K key) {
+        return isLive(findNode(key, hashOf(key)));
     }
 
     /**
@@ -97,20 +686,45 @@ public class MyHashMap<T> implements Iterable<T> {
      * @param key The key
      * @return The value associated with the key, or null if the key doesn't exist
      */
-    public T get(String key) {
-        int hashCode = key.hashCode();
-        int index = hashCode & 9;
-
-        if (map.get(index) == null) {
+    public V get(K key) {
+        if (metrics != null) {
+            return measuredGet(key);
+        }
+        GenericList.Node<MapEntry<K, V>> node = findNode(key, hashOf(key));
+        if (!isLive(node)) {
             return null;
         }
+        accessed(node.data);
+        return node.data.value;
+    }
 
-        for (MapEntry<T> entry : map.get(index)) {
-            if (entry.key.equals(key)) {
-                return entry.value;
+    /**
+     * get with metrics enabled: the same lookup, counting the nodes probed. A tree bucket is
+     * counted as the depth of a balanced tree of its size.
+     */
+    private V measuredGet(K key) {
+        int hashCode = hashOf(key);
+        GenericQueue<MapEntry<K, V>> bucket = map.get(hashCode & (map.size() - 1));
+        GenericList.Node<MapEntry<K, V>> node = null;
+        int probes = 0;
+        if (bucket instanceof TreeBucket) {
+            node = ((TreeBucket<K, V>) bucket).find(key, hashCode);
+            probes = 32 - Integer.numberOfLeadingZeros(bucket.getLength());
+        } else if (bucket != null) {
+            for (node = bucket.getHead(); node != null; node = node.next) {
+                probes++;
+                if (node.code == hashCode && keysEqual(node.data.key, key)) {
+                    break;
+                }
             }
         }
-        return null;
+        boolean hit = isLive(node);
+        metrics.recordGet(probes, hit, map.size());
+        if (!hit) {
+            return null;
+        }
+        accessed(node.data);
+        return node.data.value;
     }
 
     /**
@@ -138,31 +752,403 @@ public class MyHashMap<T> implements Iterable<T> {
      * @param value The new value
      * @return The old value associated with the key, or null if the key doesn't exist
      */
-    public T replace(String key, T value) {
-        int hashCode = key.hashCode();
-        int index = hashCode & 9;
-
-        if (map.get(index) == null) {
+    public V replace(K key, V value) {
+        cleanUp();
+        GenericList.Node<MapEntry<K, V>> node = findNode(key, hashOf(key));
+        if (!isLive(node)) {
             return null;
         }
+        V oldValue = node.data.value;
+        node.data.value = value;
+        written(node.data);
+        return oldValue;
+    }
+
+    /**
+     * Starts counting gets, hits, misses, puts, removes and resizes, and recording how many nodes
+     * each get probes. Gets that probe a long chain are also reported to Java Flight Recorder as
+     * MyHashMap.LongChainLookup events. Calling it again keeps the existing counts.
+     */
+    public void enableMetrics() {
+        if (metrics == null) {
+            metrics = new MapMetrics();
+        }
+    }
 
-        for (MapEntry<T> entry : map.get(index)) {
-            if (entry.key.equals(key)) {
-                T oldValue = entry.value;
-                entry.value = value;
-                return oldValue;
+    /**
+     * Takes a snapshot of the map's statistics. The table is walked to measure bucket occupancy
+     * and chain lengths, so this costs time in proportion to the capacity. Taken from another
+     * thread while the map is being written, the shape of the table is approximate.
+     *
+     * @return The statistics
+     */
+    public MapStats stats() {
+        ArrayList<GenericQueue<MapEntry<K, V>>> table = map;
+        long[] chainLengths = new long[MapMetrics.HISTOGRAM_BUCKETS];
+        int occupied = 0;
+        int trees = 0;
+        int longest = 0;
+        for (GenericQueue<MapEntry<K, V>> bucket : table) {
+            if (bucket == null) {
+                continue;
             }
+            int length = bucket.getLength();
+            occupied++;
+            trees += bucket instanceof TreeBucket ? 1 : 0;
+            longest = Math.max(longest, length);
+            chainLengths[MapMetrics.bucketOf(length)]++;
         }
-        return null;
+        return new MapStats(metrics, size, table.size(), occupied, trees, longest, chainLengths);
     }
 
     /**
-     * Returns an iterator over the values in the HashMap.
+     * Enables metrics and registers an MBean for them in the platform MBean server, under the
+     * name datastructures:type=MyHashMap,name="name". Each attribute read takes a fresh snapshot.
+     *
+     * @param name Tells this map apart from others in JMX clients
+     * @return The name the MBean was registered under, for unregistering it
+     * @throws IllegalArgumentException if an MBean is already registered under that name
+     */
+    public ObjectName registerMBean(String name) {
+        enableMetrics();
+        return MBeans.register("MyHashMap", name, MapStatsMXBean.class, this::stats);
+    }
+
+    /**
+     * Sets the clock used for expiration, which must return nanoseconds like System.nanoTime.
+     * Tests can pass a fake clock. It must be set before expiration is enabled.
+     *
+     * @param nanoClock The clock
+     * @throws IllegalStateException if expiration is already enabled
+     */
+    public void setClock(LongSupplier nanoClock) {
+        if (expiry != null) {
+            throw new IllegalStateException("The clock must be set before expiration is enabled");
+        }
+        this.clock = nanoClock;
+    }
+
+    /**
+     * Makes every entry expire a fixed time after it was last written. Entries already in the
+     * map are timed from now if expiration wasn't enabled before; this takes one pass over the
+     * map.
+     *
+     * @param duration The time after a write at which an entry expires
+     * @param unit The unit of the duration
+     */
+    public void expireAfterWrite(long duration, TimeUnit unit) {
+        enableExpiry(duration).setExpireAfterWrite(unit.toNanos(duration));
+        rescheduleAll();
+    }
+
+    /**
+     * Makes every entry expire a fixed time after it was last read or written. Entries already
+     * in the map are timed from now if expiration wasn't enabled before; this takes one pass
+     * over the map.
+     *
+     * @param duration The time after a read or write at which an entry expires
+     * @param unit The unit of the duration
+     */
+    public void expireAfterAccess(long duration, TimeUnit unit) {
+        enableExpiry(duration).setExpireAfterAccess(unit.toNanos(duration));
+        rescheduleAll();
+    }
+
+    private TimingWheel<K, V> enableExpiry(long duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Illegal expiration duration: " + duration);
+        }
+        if (expiry == null) {
+            expiry = new TimingWheel<>(this, clock);
+        }
+        return expiry;
+    }
+
+    /**
+     * Gives every entry a timed entry and an expiration time under the current settings.
+     */
+    private void rescheduleAll() {
+        for (GenericQueue<MapEntry<K, V>> bucket : map) {
+            for (GenericList.Node<MapEntry<K, V>> node = bucket == null ? null : bucket.getHead(); node != null; node = node.next) {
+                if (node.data instanceof TimingWheel.TimedEntry) {
+                    expiry.reschedule((TimingWheel.TimedEntry<K, V>) node.data);
+                } else {
+                    node.data = expiry.newEntry(node.data.key, node.data.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the entries that have expired since the last clean-up. Writes do this
+     * automatically; a reader that wants exact size() or iteration can call it first. The cost
+     * is proportional to the number of entries that expired, not to the size of the map.
+     *
+     * @return The number of entries removed
+     */
+    public int cleanUp() {
+        return expiry == null ? 0 : expiry.advance();
+    }
+
+    /**
+     * Removes an entry that the timing wheel found expired, unless it has been replaced.
+     *
+     * @param entry The expired entry
+     */
+    void removeExpired(MapEntry<K, V> entry) {
+        int hashCode = hashOf(entry.key);
+        int index = hashCode & (map.size() - 1);
+        GenericQueue<MapEntry<K, V>> bucket = map.get(index);
+        GenericList.Node<MapEntry<K, V>> node = findInBucket(bucket, entry.key, hashCode);
+        if (node != null && node.data == entry) {
+            unlinkNode(index, bucket, node);
+        }
+    }
+
+    /**
+     * Checks that a lookup found a node and that its entry hasn't expired.
+     */
+    private boolean isLive(GenericList.Node<MapEntry<K, V>> node) {
+        return node != null && (expiry == null || !expiry.isExpired(node.data));
+    }
+
+    private void written(MapEntry<K, V> entry) {
+        if (expiry != null) {
+            expiry.onWrite(entry);
+        }
+    }
+
+    private void accessed(MapEntry<K, V> entry) {
+        if (expiry != null) {
+            expiry.onAccess(entry);
+        }
+    }
+
+    /**
+     * Sets the value of an entry found by a cursor, counting it as a write for expiration.
+     */
+    void updateValue(MapEntry<K, V> entry, V value) {
+        entry.value = value;
+        written(entry);
+    }
+
+    /**
+     * Removes a node found by a cursor from the given bucket.
+     */
+    void removeNode(int index, GenericList.Node<MapEntry<K, V>> node) {
+        unlinkNode(index, map.get(index), node);
+    }
+
+    /**
+     * Returns the current table of buckets, for cursors.
+     */
+    ArrayList<GenericQueue<MapEntry<K, V>>> table() {
+        return map;
+    }
+
+    /**
+     * Returns the bucket a key belongs to, for tests.
+     *
+     * @param key The key
+     * @return The key's bucket, or null if it is empty
+     */
+    GenericQueue<MapEntry<K, V>> bucketFor(K key) {
+        return map.get(hashOf(key) & (map.size() - 1));
+    }
+
+    /**
+     * Returns the current number of buckets in the table.
+     *
+     * @return The bucket count
+     */
+    int capacity() {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of structural changes made so far, for fail-fast iterators.
+     *
+     * @return The modification count
+     */
+    int modCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns a fail-fast iterator over the values in the HashMap.
      *
      * @return An iterator over the values
      */
     @Override
-    public Iterator<T> iterator() {
-        return new HMIterator<>(map);
+    public Iterator<V> iterator() {
+        return new HMIterator<>(this, map, false);
+    }
+
+    /**
+     * Returns an iterator over the values in the HashMap that may be used while the map is being
+     * modified. Only the bucket heads are copied when it is created; see the class comment for
+     * what it sees.
+     *
+     * @return A snapshot iterator over the values
+     */
+    public Iterator<V> snapshotIterator() {
+        sharedNodes = true;
+        return new HMIterator<>(this, map, true);
+    }
+
+    /**
+     * Returns a fail-fast spliterator over the values that splits by ranges of buckets, so
+     * parallel streams can divide the map between threads without copying it.
+     *
+     * @return A spliterator over the values
+     */
+    @Override
+    public Spliterator<V> spliterator() {
+        return new HMSpliterator<>(this, map, 0, map.size(), size, true);
+    }
+
+    /**
+     * Returns a sequential stream of the values in the HashMap.
+     *
+     * @return A stream over the values
+     */
+    public Stream<V> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the values in the HashMap.
+     *
+     * @return A parallel stream over the values
+     */
+    public Stream<V> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a view of the keys in the HashMap. Nothing is copied: each iteration walks the
+     * map's own entries, and fails fast like iterator().
+     *
+     * @return An Iterable over the keys
+     */
+    public Iterable<K> keys() {
+        return () -> new KeyIterator<>(new HMIterator<>(this, map, false));
+    }
+
+    /**
+     * Returns a view of the entries in the HashMap. The entries are the ones stored in the map,
+     * so nothing is allocated per entry.
+     *
+     * @return An Iterable over the entries
+     */
+    public Iterable<MapEntry<K, V>> entries() {
+        return () -> new EntryIterator<>(new HMIterator<>(this, map, false));
+    }
+
+    /**
+     * Passes every stored entry to the action, walking the bucket chains directly.
+     *
+     * @param action Receives each entry
+     * @throws ConcurrentModificationException if the action adds or removes keys
+     */
+    public void forEachEntry(Consumer<? super MapEntry<K, V>> action) {
+        int expectedModCount = modCount;
+        for (GenericQueue<MapEntry<K, V>> bucket : map) {
+            for (GenericList.Node<MapEntry<K, V>> node = bucket == null ? null : bucket.getHead(); node != null; node = node.next) {
+                action.accept(node.data);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Saves the entries to a binary file that MapSnapshot.open can map and serve without loading
+     * it. Entries that have expired but not been removed yet are left out.
+     *
+     * @param path The file to write; it is replaced if it exists
+     * @param keyCodec Encodes the keys
+     * @param valueCodec Encodes the values
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path path, SnapshotCodec<? super K> keyCodec, SnapshotCodec<? super V> valueCodec) throws IOException {
+        ArrayList<MapEntry<K, V>> live = new ArrayList<>(size);
+        forEachEntry(entry -> {
+            if (expiry == null || !expiry.isExpired(entry)) {
+                live.add(entry);
+            }
+        });
+        MapSnapshot.write(path, live, keyCodec, valueCodec);
+    }
+
+    /**
+     * Returns a cursor over the entries, for hot loops that must not allocate. The cursor can be
+     * reset and reused for any number of walks over the map.
+     *
+     * @return A cursor positioned before the first entry
+     */
+    public HMCursor<K, V> cursor() {
+        return new HMCursor<>(this);
+    }
+
+    /**
+     * KeyIterator yields the keys of the entries an HMIterator walks.
+     */
+    private static final class KeyIterator<K, V> implements Iterator<K> {
+        private final HMIterator<K, V> entries;
+
+        KeyIterator(HMIterator<K, V> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public K next() {
+            return entries.nextEntry().key;
+        }
+    }
+
+    /**
+     * EntryIterator yields the entries an HMIterator walks.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<MapEntry<K, V>> {
+        private final HMIterator<K, V> entries;
+
+        EntryIterator(HMIterator<K, V> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public MapEntry<K, V> next() {
+            return entries.nextEntry();
+        }
+    }
+
+    /**
+     * Passes every key and value to the action, walking the bucket chains directly.
+     *
+     * @param action Receives each key and its value
+     * @throws ConcurrentModificationException if the action adds or removes keys
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        for (GenericQueue<MapEntry<K, V>> bucket : map) {
+            for (GenericList.Node<MapEntry<K, V>> node = bucket == null ? null : bucket.getHead(); node != null; node = node.next) {
+                action.accept(node.data.key, node.data.value);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+import java.util.Iterator;
+
+/**
+ * OHMIterator class implements the Iterator interface for OpenHashMap.
+ * It allows iteration over the values stored in the slot arrays.
+ *
+ * @param <T> The type of values stored in the HashMap
+ */
+public class OHMIterator<T> implements Iterator<T> {
+    private String[] keys;
+    private Object[] values;
+    private int currentSlot;
+
+    /**
+     * Constructor for OHMIterator.
+     *
+     * @param keys The key slots of the OpenHashMap
+     * @param values The value slots of the OpenHashMap
+     */
+    public OHMIterator(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.currentSlot = 0;
+        moveToNextOccupiedSlot();
+    }
+
+    /**
+     * Moves the iterator to the next occupied slot.
+     */
+    private void moveToNextOccupiedSlot() {
+        while (currentSlot < keys.length && keys[currentSlot] == null) {
+            currentSlot++;
+        }
+    }
+
+    /**
+     * Checks if there are more elements to iterate over.
+     *
+     * @return true if there are more elements, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return currentSlot < keys.length;
+    }
+
+    /**
+     * Returns the next value in the iteration.
+     *
+     * @return The next value
+     * @throws java.util.NoSuchElementException if there are no more elements
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        T value = (T) values[currentSlot];
+        currentSlot++;
+        moveToNextOccupiedSlot();
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * OHMTest contains JUnit tests for the OpenHashMap class. It tests the same operations as HMTest
+ * along with removal and growth of the slot arrays.
+ */
+public class OHMTest {
+
+    @Test
+    void testConstructor() {
+        // Test that the map is initialized with the first key-value pair.
+        OpenHashMap<Integer> map = new OpenHashMap<>("key1", 1);
+        assertEquals(1, map.size());
+        assertTrue(map.contains("key1"));
+    }
+
+    @Test
+    void testPutGetReplace() {
+        // Test put, get and replace together, including overwriting an existing key.
+        OpenHashMap<String> map = new OpenHashMap<>("key1", "value1");
+        map.put("key2", "value2");
+        map.put("key1", "value11");
+        assertEquals(2, map.size());
+        assertEquals("value11", map.get("key1"));
+        assertEquals("value2", map.replace("key2", "value22"));
+        assertEquals("value22", map.get("key2"));
+        assertNull(map.replace("key3", "value3"));  // Replacing a missing key does nothing.
+        assertNull(map.get("key3"));
+        assertFalse(map.contains("key3"));
+    }
+
+    @Test
+    void testRemove() {
+        // Test that removing a key leaves the others reachable.
+        OpenHashMap<Integer> map = new OpenHashMap<>("key1", 1);
+        map.put("key2", 2);
+        map.put("key3", 3);
+        assertEquals(2, (int) map.remove("key2"));
+        assertNull(map.remove("key2"));  // Already removed.
+        assertEquals(2, map.size());
+        assertFalse(map.contains("key2"));
+        assertEquals(1, (int) map.get("key1"));
+        assertEquals(3, (int) map.get("key3"));
+    }
+
+    @Test
+    void testMatchesJavaHashMap() {
+        // Test a random mix of puts and removes against java.util.HashMap so that backward-shift
+        // deletion is exercised across wrapped and colliding probe runs.
+        OpenHashMap<Integer> map = new OpenHashMap<>("seed", -1);
+        HashMap<String, Integer> expected = new HashMap<>();
+        expected.put("seed", -1);
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String key = "k" + random.nextInt(500);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int i = 0; i < 500; i++) {
+            String key = "k" + i;
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.contains(key));
+        }
+    }
+
+    @Test
+    void testIterator() {
+        // Test that the iterator visits every value exactly once after the table has grown.
+        OpenHashMap<Integer> map = new OpenHashMap<>("key0", 0);
+        for (int i = 1; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        long sum = 0;
+        int count = 0;
+        for (int value : map) {
+            sum += value;
+            count++;
+        }
+        assertEquals(1000, count);
+        assertEquals(999 * 1000 / 2, sum);
+    }
+}
@@ -0,0 +1,392 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * OffHeapHashMap is a variant of MyHashMap that keeps its keys and values outside the Java heap,
+ * for maps so large that tracing millions of entry objects makes garbage collection pauses long.
+ * Keys and values are serialized with SnapshotCodecs and stored as records in direct ByteBuffer
+ * slabs, and the hash index is a direct ByteBuffer too, so the heap holds only a few buffer
+ * objects whatever the size of the map. The cost is that every put encodes and every get decodes.
+ *
+ * The index is laid out like OpenHashMap's table: linear probing, doubling at half full, and
+ * backward-shift deletion instead of tombstones. Its 16-byte slots hold the key's hash, the
+ * record's slab and offset, and the key length, so most mismatches are rejected without reading
+ * the slab.
+ *
+ * A record is the key length, value length and value capacity (3 ints), the key bytes, and room
+ * for the value. A new value that fits is written in place; a larger one is written to a new
+ * record and the old one becomes garbage. Once garbage outweighs the live records the map copies
+ * the live records into fresh slabs, so a sustained write load doesn't grow memory without bound.
+ * Freed slabs are returned to the operating system when the buffers are garbage collected.
+ *
+ * Keys are compared by their encoded bytes, so the key codec must encode equal keys to equal
+ * bytes. Null keys and values are not allowed.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
+ */
+public class OffHeapHashMap<K, V> {
+    private static final int SLAB_BYTES = 1 << 24;       // Size of a slab (16 MB), unless a record is bigger.
+    private static final int RECORD_HEADER = 12;         // Key length, value length, value capacity.
+    private static final int SLOT_BYTES = 16;            // Hash, slab + 1 (0 if empty), offset, key length.
+    private static final int MAXIMUM_CAPACITY = 1 << 26; // Slots in a 1 GB index buffer.
+    private static final int DEFAULT_CAPACITY = 16;       // Initial number of slots (power of two).
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;  // Linear probing degrades quickly above this.
+
+    private final SnapshotCodec<K> keyCodec;
+    private final SnapshotCodec<V> valueCodec;
+    private ByteBuffer index;
+    private int capacity;
+    private int threshold;
+    private int size;
+    private ArrayList<ByteBuffer> slabs = new ArrayList<>();
+    private int slabUsed;      // Bytes used in the last slab.
+    private long liveBytes;    // Bytes of records in the index.
+    private long garbageBytes; // Bytes of records replaced or removed since the last compaction.
+
+    /**
+     * Constructor to initialize an empty off-heap map.
+     *
+     * @param keyCodec Serializes the keys
+     * @param valueCodec Serializes the values
+     */
+    public OffHeapHashMap(SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) {
+        this(DEFAULT_CAPACITY, keyCodec, valueCodec);
+    }
+
+    /**
+     * Constructor to initialize an empty off-heap map with room for a number of entries before
+     * the index has to grow.
+     *
+     * @param expectedSize The number of entries expected
+     * @param keyCodec Serializes the keys
+     * @param valueCodec Serializes the values
+     */
+    public OffHeapHashMap(int expectedSize, SnapshotCodec<K> keyCodec, SnapshotCodec<V> valueCodec) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        long needed = (long) (expectedSize / DEFAULT_LOAD_FACTOR) + 1;
+        int initial = DEFAULT_CAPACITY;
+        while (initial < needed && initial < MAXIMUM_CAPACITY) {
+            initial <<= 1;
+        }
+        allocateIndex(initial);
+    }
+
+    private void allocateIndex(int slots) {
+        this.index = ByteBuffer.allocateDirect(slots * SLOT_BYTES);
+        this.capacity = slots;
+        this.threshold = slots >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY - 1 : (int) (slots * DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the slot holding the key, or the negative of (empty slot + 1) where it would go.
+     */
+    private int findSlot(byte[] key, int hashCode) {
+        int mask = capacity - 1;
+        int slot = hashCode & mask;
+        int slab;
+        while ((slab = index.getInt(slot * SLOT_BYTES + 4)) != 0) {
+            int at = slot * SLOT_BYTES;
+            if (index.getInt(at) == hashCode && index.getInt(at + 12) == key.length
+                    && keyEquals(slabs.get(slab - 1), index.getInt(at + 8), key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -(slot + 1);
+    }
+
+    private static boolean keyEquals(ByteBuffer slab, int offset, byte[] key) {
+        int at = offset + RECORD_HEADER;
+        for (int i = 0; i < key.length; i++) {
+            if (slab.get(at + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean occupied(int slot) {
+        return index.getInt(slot * SLOT_BYTES + 4) != 0;
+    }
+
+    private ByteBuffer slabOf(int slot) {
+        return slabs.get(index.getInt(slot * SLOT_BYTES + 4) - 1);
+    }
+
+    private int offsetOf(int slot) {
+        return index.getInt(slot * SLOT_BYTES + 8);
+    }
+
+    private static int recordBytes(ByteBuffer slab, int offset) {
+        return RECORD_HEADER + slab.getInt(offset) + slab.getInt(offset + 8);
+    }
+
+    /**
+     * Writes a new record and points a slot at it.
+     */
+    private void append(int slot, int hashCode, byte[] key, byte[] value) {
+        int bytes = RECORD_HEADER + key.length + value.length;
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.capacity() - slabUsed < bytes) {
+            slab = ByteBuffer.allocateDirect(Math.max(SLAB_BYTES, bytes));
+            slabs.add(slab);
+            slabUsed = 0;
+        }
+        int offset = slabUsed;
+        slab.putInt(offset, key.length);
+        slab.putInt(offset + 4, value.length);
+        slab.putInt(offset + 8, value.length);
+        slab.position(offset + RECORD_HEADER);
+        slab.put(key);
+        slab.put(value);
+        slabUsed += bytes;
+        liveBytes += bytes;
+
+        int at = slot * SLOT_BYTES;
+        index.putInt(at, hashCode);
+        index.putInt(at + 4, slabs.size());
+        index.putInt(at + 8, offset);
+        index.putInt(at + 12, key.length);
+    }
+
+    /**
+     * Stores a new value for the key in a slot, in place if it fits in the record.
+     */
+    private void writeValue(int slot, byte[] key, byte[] value) {
+        ByteBuffer slab = slabOf(slot);
+        int offset = offsetOf(slot);
+        if (value.length <= slab.getInt(offset + 8)) {
+            slab.putInt(offset + 4, value.length);
+            slab.position(offset + RECORD_HEADER + key.length);
+            slab.put(value);
+            return;
+        }
+        int bytes = recordBytes(slab, offset);
+        liveBytes -= bytes;
+        garbageBytes += bytes;
+        append(slot, index.getInt(slot * SLOT_BYTES), key, value);
+        compactIfWasteful();
+    }
+
+    private V valueAt(int slot) {
+        ByteBuffer slab = slabOf(slot);
+        int offset = offsetOf(slot);
+        int start = offset + RECORD_HEADER + slab.getInt(offset);
+        ByteBuffer view = slab.duplicate();
+        view.limit(start + slab.getInt(offset + 4)).position(start);
+        return valueCodec.decode(view.slice());
+    }
+
+    /**
+     * Puts a key-value pair into the HashMap.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        byte[] encodedKey = keyCodec.encode(key);
+        byte[] encodedValue = valueCodec.encode(value);
+        int hashCode = MyHashMap.hash(key);
+        int slot = findSlot(encodedKey, hashCode);
+        if (slot >= 0) {
+            writeValue(slot, encodedKey, encodedValue); // Update the value for existing key
+            return;
+        }
+        if (size >= threshold) {
+            resize();  // Before appending, so a full index throws without storing anything.
+            slot = findSlot(encodedKey, hashCode);
+        }
+        append(-slot - 1, hashCode, encodedKey, encodedValue);
+        size++;
+    }
+
+    /**
+     * Gets the value associated with a specific key.
+     *
+     * @param key The key
+     * @return The value associated with the key, or null if the key doesn't exist
+     */
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(keyCodec.encode(key), MyHashMap.hash(key));
+        return slot >= 0 ? valueAt(slot) : null;
+    }
+
+    /**
+     * Checks if the HashMap contains a specific key, without decoding its value.
+     *
+     * @param key The key to check
+     * @return true if the key exists, false otherwise
+     */
+    public boolean contains(K key) {
+        return key != null && findSlot(keyCodec.encode(key), MyHashMap.hash(key)) >= 0;
+    }
+
+    /**
+     * Replaces the value for a specific key.
+     *
+     * @param key The key
+     * @param value The new value
+     * @return The old value associated with the key, or null if the key doesn't exist
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        byte[] encodedKey = keyCodec.encode(key);
+        int slot = findSlot(encodedKey, MyHashMap.hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = valueAt(slot);
+        writeValue(slot, encodedKey, valueCodec.encode(value));
+        return oldValue;
+    }
+
+    /**
+     * Removes a key and its value. Slots after the removed one in the same probe run are shifted
+     * back so that every remaining key stays reachable without tombstones.
+     *
+     * @param key The key
+     * @return The value that was associated with the key, or null if the key doesn't exist
+     */
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = findSlot(keyCodec.encode(key), MyHashMap.hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = valueAt(slot);
+        int bytes = recordBytes(slabOf(slot), offsetOf(slot));
+        liveBytes -= bytes;
+        garbageBytes += bytes;
+        size--;
+        deleteSlot(slot);
+        compactIfWasteful();
+        return oldValue;
+    }
+
+    /**
+     * Empties a slot, moving later slots of its probe run back into the hole.
+     */
+    private void deleteSlot(int hole) {
+        int mask = capacity - 1;
+        int slot = (hole + 1) & mask;
+        while (occupied(slot)) {
+            int home = index.getInt(slot * SLOT_BYTES) & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, slot].
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                copySlot(slot, hole);
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        index.putInt(hole * SLOT_BYTES + 4, 0);
+    }
+
+    private void copySlot(int from, int to) {
+        for (int i = 0; i < SLOT_BYTES; i += 4) {
+            index.putInt(to * SLOT_BYTES + i, index.getInt(from * SLOT_BYTES + i));
+        }
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every slot using its cached hash code, so no
+     * key is read from the slabs.
+     */
+    private void resize() {
+        if (capacity == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("OffHeapHashMap is full");
+        }
+        ByteBuffer old = index;
+        int oldCapacity = capacity;
+        allocateIndex(capacity << 1);
+        int mask = capacity - 1;
+        for (int from = 0; from < oldCapacity; from++) {
+            int at = from * SLOT_BYTES;
+            if (old.getInt(at + 4) == 0) {
+                continue;
+            }
+            int slot = old.getInt(at) & mask;
+            while (occupied(slot)) {
+                slot = (slot + 1) & mask;
+            }
+            for (int i = 0; i < SLOT_BYTES; i += 4) {
+                index.putInt(slot * SLOT_BYTES + i, old.getInt(at + i));
+            }
+        }
+    }
+
+    /**
+     * Copies the live records into new slabs once replaced and removed records take more room
+     * than the live ones (and at least a slab), dropping the old slabs.
+     */
+    private void compactIfWasteful() {
+        if (garbageBytes < SLAB_BYTES || garbageBytes <= liveBytes) {
+            return;
+        }
+        ArrayList<ByteBuffer> old = slabs;
+        slabs = new ArrayList<>();
+        slabUsed = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int at = slot * SLOT_BYTES;
+            int slab = index.getInt(at + 4);
+            if (slab == 0) {
+                continue;
+            }
+            ByteBuffer from = old.get(slab - 1);
+            int offset = index.getInt(at + 8);
+            byte[] key = new byte[from.getInt(offset)];
+            byte[] value = new byte[from.getInt(offset + 4)];
+            from.position(offset + RECORD_HEADER);
+            from.get(key);
+            from.get(value);
+            append(slot, index.getInt(at), key, value);
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in the HashMap.
+     *
+     * @return The size of the HashMap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the HashMap is empty.
+     *
+     * @return true if the HashMap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory held by the index and the slabs.
+     *
+     * @return The off-heap footprint in bytes
+     */
+    public long offHeapBytes() {
+        long bytes = index.capacity();
+        for (ByteBuffer slab : slabs) {
+            bytes += slab.capacity();
+        }
+        return bytes;
+    }
+}
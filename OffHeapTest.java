@@ -0,0 +1,91 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * OffHeapTest contains JUnit tests for the OffHeapHashMap class.
+ */
+public class OffHeapTest {
+
+    @Test
+    void testBasicOperations() {
+        // Test put, get, contains, replace, remove and size.
+        OffHeapHashMap<String, String> map = new OffHeapHashMap<>(SnapshotCodec.UTF8, SnapshotCodec.UTF8);
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+        map.put("a", "one");
+        map.put("b", "two");
+        map.put("a", "uno");  // Same length: written in place.
+        assertEquals(2, map.size());
+        assertEquals("uno", map.get("a"));
+        assertTrue(map.contains("b"));
+        assertFalse(map.contains("c"));
+        assertEquals("two", map.replace("b", "a much longer value"));
+        assertEquals("a much longer value", map.get("b"));
+        assertNull(map.replace("c", "x"));
+        assertFalse(map.contains("c"));
+        assertEquals("uno", map.remove("a"));
+        assertNull(map.remove("a"));
+        assertEquals(1, map.size());
+        assertThrows(NullPointerException.class, () -> map.put("d", null));
+        assertThrows(NullPointerException.class, () -> map.put(null, "d"));
+    }
+
+    @Test
+    void testGrowth() {
+        // Test that entries survive the index doubling many times.
+        OffHeapHashMap<Integer, Integer> map = new OffHeapHashMap<>(SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+        for (int i = 0; i < 100000; i++) {
+            map.put(i, -i);
+        }
+        assertEquals(100000, map.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(-i, (int) map.get(i));
+        }
+        assertNull(map.get(100000));
+    }
+
+    @Test
+    void testAgainstHashMap() {
+        // Test random puts, replaces and removes of varying sizes against java.util.HashMap.
+        OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(SnapshotCodec.INTEGER, SnapshotCodec.UTF8);
+        HashMap<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(5000);
+            int op = random.nextInt(10);
+            String value = "v".repeat(random.nextInt(40)) + i;
+            if (op < 5) {
+                map.put(key, value);
+                expected.put(key, value);
+            } else if (op < 7) {
+                assertEquals(expected.replace(key, value), map.replace(key, value));
+            } else if (op < 9) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), map.contains(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void testCompactionBoundsMemory() {
+        // Test that growing values, which leave their old records behind, don't grow memory
+        // without bound.
+        OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(SnapshotCodec.INTEGER, SnapshotCodec.UTF8);
+        for (int i = 0; i < 100000; i++) {
+            map.put(i % 100, "x".repeat(i % 2000));
+        }
+        assertEquals(100, map.size());
+        for (int key = 0; key < 100; key++) {
+            assertEquals((99900 + key) % 2000, map.get(key).length());
+        }
+        assertTrue(map.offHeapBytes() < 64 << 20, "holds " + map.offHeapBytes());
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.Iterator;
+
+/**
+ * OpenHashMap is an alternative to MyHashMap with the same public API that uses open addressing
+ * instead of chained buckets. Keys, values and cached hash codes are stored in three parallel
+ * arrays and collisions are resolved with linear probing, so an entry costs three array slots
+ * rather than a MapEntry, a Node and a share of a GenericQueue, and lookups allocate nothing.
+ * Removal uses backward-shift deletion, so the table never contains tombstones.
+ *
+ * @param <T> The type of values stored in the HashMap
+ */
+public class OpenHashMap<T> implements Iterable<T> {
+    private static final int DEFAULT_CAPACITY = 16;         // Initial number of slots (power of two).
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;  // Linear probing degrades quickly above this.
+    private static final int MAXIMUM_CAPACITY = 1 << 30;    // Largest table we will allocate.
+
+    private String[] keys;    // Key in each slot, or null if the slot is empty.
+    private Object[] values;  // Value in each slot.
+    private int[] hashes;     // Spread hash code of the key in each slot.
+    private int size;
+    private int threshold;    // Size at which the table is doubled.
+
+    /**
+     * Constructor for OpenHashMap.
+     *
+     * @param key The initial key
+     * @param value The initial value
+     */
+    public OpenHashMap(String key, T value) {
+        allocate(DEFAULT_CAPACITY);
+        put(key, value);
+    }
+
+    /**
+     * Allocates empty arrays with the given (power of two) number of slots.
+     */
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        threshold = capacity >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the slot holding the key, or the negative of (empty slot + 1) where it would go.
+     */
+    private int findSlot(String key, int hashCode) {
+        int mask = keys.length - 1;
+        int index = hashCode & mask;
+        while (keys[index] != null) {
+            if (hashes[index] == hashCode && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every entry using its cached hash code.
+     */
+    private void resize() {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+    }
+
+    /**
+     * Puts a key-value pair into the HashMap.
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(String key, T value) {
+        int hashCode = MyHashMap.hash(key);
+        int slot = findSlot(key, hashCode);
+        if (slot >= 0) {
+            values[slot] = value; // Update the value for existing key
+            return;
+        }
+        slot = -slot - 1;
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hashCode;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Checks if the HashMap contains a specific key.
+     *
+     * @param key The key to check
+     * @return true if the key exists, false otherwise
+     */
+    public boolean contains(String key) {
+        return findSlot(key, MyHashMap.hash(key)) >= 0;
+    }
+
+    /**
+     * Gets the value associated with a specific key.
+     *
+     * @param key The key
+     * @return The value associated with the key, or null if the key doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        int slot = findSlot(key, MyHashMap.hash(key));
+        return slot >= 0 ? (T) values[slot] : null;
+    }
+
+    /**
+     * Replaces the value for a specific key.
+     *
+     * @param key The key
+     * @param value The new value
+     * @return The old value associated with the key, or null if the key doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    public T replace(String key, T value) {
+        int slot = findSlot(key, MyHashMap.hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        T oldValue = (T) values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Removes a key and its value. Entries after the removed slot in the same probe run are
+     * shifted back so that every remaining key stays reachable without tombstones.
+     *
+     * @param key The key
+     * @return The value that was associated with the key, or null if the key doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(String key) {
+        int slot = findSlot(key, MyHashMap.hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        T oldValue = (T) values[slot];
+        int mask = keys.length - 1;
+        int hole = slot;
+        int index = (hole + 1) & mask;
+        while (keys[index] != null) {
+            int home = hashes[index] & mask;
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, index].
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hashes[hole] = hashes[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[hole] = null;
+        values[hole] = null;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of key-value mappings in the HashMap.
+     *
+     * @return The size of the HashMap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the HashMap is empty.
+     *
+     * @return true if the HashMap is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns an iterator over the values in the HashMap.
+     *
+     * @return An iterator over the values
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new OHMIterator<>(keys, values);
+    }
+}
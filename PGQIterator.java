@@ -0,0 +1,60 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+/**
+ * PGQIterator is the iterator for PriorityGenericQueue. It walks the heap array in either
+ * direction, so no copy is made and elements come in heap order. It is fail-fast: if the queue is
+ * structurally modified after the iterator was created, next throws a
+ * ConcurrentModificationException.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class PGQIterator<T> implements Iterator<T> {
+    private final PriorityGenericQueue<T> queue;
+    private final int expectedModCount;
+    private final boolean descending;
+    private int next;  // Index of the next element to return.
+
+    /**
+     * Constructor for PGQIterator.
+     *
+     * @param queue The queue to iterate over
+     * @param descending true to iterate in reverse heap order
+     */
+    public PGQIterator(PriorityGenericQueue<T> queue, boolean descending) {
+        this.queue = queue;
+        this.expectedModCount = queue.getModCount();
+        this.descending = descending;
+        this.next = descending ? queue.getLength() - 1 : 0;
+    }
+
+    /**
+     * Checks if there are more elements to iterate over.
+     *
+     * @return true if there are more elements, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return descending ? next >= 0 : next < queue.getLength();
+    }
+
+    /**
+     * Returns the next element in the iteration.
+     *
+     * @return The next element
+     * @throws java.util.NoSuchElementException if there are no more elements
+     * @throws ConcurrentModificationException if the queue was modified since the iterator was created
+     */
+    @Override
+    public T next() {
+        if (queue.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        T data = queue.get(next);
+        next += descending ? -1 : 1;
+        return data;
+    }
+}
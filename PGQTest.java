@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * PGQTest contains JUnit tests for the PriorityGenericQueue class.
+ */
+public class PGQTest {
+
+    @Test
+    void testDequeueOrder() {
+        // Test that elements come out by priority code, lowest first.
+        PriorityGenericQueue<String> queue = new PriorityGenericQueue<>();
+        assertNull(queue.dequeue());
+        assertNull(queue.peek());
+        queue.add("low", 9);
+        queue.add("urgent", 0);
+        queue.add("normal", 5);
+        queue.add("default");  // Priority 0, after "urgent".
+        assertEquals(4, queue.getLength());
+        assertEquals("urgent", queue.peek());
+        assertEquals("urgent", queue.dequeue());
+        assertEquals("default", queue.dequeue());
+        assertEquals("normal", queue.dequeue());
+        assertEquals("low", queue.dequeue());
+        assertEquals(0, queue.getLength());
+        assertNull(queue.delete());
+    }
+
+    @Test
+    void testStableForEqualPriorities() {
+        // Test that elements with the same priority come out in the order they were added.
+        PriorityGenericQueue<Integer> queue = new PriorityGenericQueue<>();
+        for (int i = 0; i < 1000; i++) {
+            queue.add(i, i % 3);
+        }
+        int previousPriority = -1;
+        int previous = -1;
+        while (queue.getLength() > 0) {
+            int value = queue.dequeue();
+            int priority = value % 3;
+            if (priority == previousPriority) {
+                assertTrue(value > previous);
+            } else {
+                assertEquals(previousPriority + 1, priority);
+            }
+            previousPriority = priority;
+            previous = value;
+        }
+    }
+
+    @Test
+    void testDecreaseKeyAndRemove() {
+        // Test moving a queued element forward and cancelling one through their handles.
+        PriorityGenericQueue<String> queue = new PriorityGenericQueue<>();
+        PriorityGenericQueue.Handle<String> a = queue.enqueue("a", 5);
+        PriorityGenericQueue.Handle<String> b = queue.enqueue("b", 7);
+        PriorityGenericQueue.Handle<String> c = queue.enqueue("c", 9);
+        queue.enqueue("d", 3);
+        queue.decreaseKey(c, 3);  // Joins "d" at priority 3, behind it.
+        assertEquals(3, c.getPriority());
+        assertThrows(IllegalArgumentException.class, () -> queue.decreaseKey(a, 6));
+        assertTrue(queue.remove(b));
+        assertFalse(b.isQueued());
+        assertFalse(queue.remove(b));
+        assertThrows(IllegalArgumentException.class, () -> queue.decreaseKey(b, 0));
+        assertEquals("d", queue.dequeue());
+        assertEquals("c", queue.dequeue());
+        assertEquals("a", queue.dequeue());
+        assertFalse(a.isQueued());
+        assertEquals(0, queue.getLength());
+    }
+
+    @Test
+    void testAgainstPriorityQueue() {
+        // Test random operations against java.util.PriorityQueue ordered by priority, then arrival.
+        PriorityGenericQueue<long[]> queue = new PriorityGenericQueue<>();
+        PriorityQueue<long[]> expected = new PriorityQueue<>((x, y) ->
+                x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[1], y[1]));
+        ArrayList<PriorityGenericQueue.Handle<long[]>> handles = new ArrayList<>();
+        Random random = new Random(42);
+        long sequence = 0;
+        for (int i = 0; i < 100000; i++) {
+            int op = random.nextInt(10);
+            if (op < 5) {
+                int priority = random.nextInt(50);
+                long[] job = { priority, sequence++ };
+                handles.add(queue.enqueue(job, priority));
+                expected.add(job);
+            } else if (op < 8) {
+                assertSame(expected.poll(), queue.dequeue());
+            } else if (!handles.isEmpty()) {
+                PriorityGenericQueue.Handle<long[]> handle = handles.get(random.nextInt(handles.size()));
+                if (!handle.isQueued()) {
+                    continue;
+                }
+                long[] job = handle.getData();
+                expected.remove(job);
+                if (op == 8) {
+                    queue.remove(handle);
+                } else {
+                    int priority = random.nextInt(handle.getPriority() + 1);
+                    queue.decreaseKey(handle, priority);
+                    if (priority < job[0]) {
+                        job[0] = priority;
+                        job[1] = sequence++;
+                    }
+                    expected.add(job);
+                }
+            }
+            assertEquals(expected.size(), queue.getLength());
+        }
+        while (!expected.isEmpty()) {
+            assertSame(expected.poll(), queue.dequeue());
+        }
+    }
+
+    @Test
+    void testIterationInHeapOrder() {
+        // Test that iterators and dumpList visit every element and that iterators are fail-fast.
+        PriorityGenericQueue<Integer> queue = new PriorityGenericQueue<>();
+        for (int i = 0; i < 100; i++) {
+            queue.add(i, 100 - i);
+        }
+        ArrayList<Integer> dumped = queue.dumpList();
+        assertEquals(100, dumped.size());
+        assertEquals(99, (int) dumped.get(0));  // The head of the heap has the lowest code.
+        ArrayList<Integer> visited = new ArrayList<>();
+        for (Integer value : queue) {
+            visited.add(value);
+        }
+        assertEquals(dumped, visited);
+        Iterator<Integer> descending = queue.descendingIterator();
+        assertEquals(dumped.get(99), descending.next());
+        assertEquals(99, (int) queue.set(0, -1));
+        assertEquals(-1, (int) queue.get(0));
+        assertNull(queue.get(100));
+        Iterator<Integer> iterator = queue.iterator();
+        iterator.next();
+        queue.dequeue();
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+        assertEquals(4950 - 99 - 1 + 1, queue.stream().mapToInt(Integer::intValue).sum());  // 99 became -1, then was dequeued.
+    }
+
+    @Test
+    void testDecreaseKeyFailsIterators() {
+        // Test that decreaseKey, which reorders the heap, makes running iterators fail fast.
+        PriorityGenericQueue<String> queue = new PriorityGenericQueue<>();
+        queue.add("a", 1);
+        queue.add("b", 2);
+        PriorityGenericQueue.Handle<String> last = queue.enqueue("c", 3);
+        Iterator<String> iterator = queue.iterator();
+        iterator.next();
+        queue.decreaseKey(last, 0);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        Iterator<String> unaffected = queue.iterator();
+        queue.decreaseKey(last, 0);  // Same code: nothing moves, so the iterator carries on.
+        assertEquals("c", unaffected.next());
+    }
+}
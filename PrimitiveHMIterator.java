@@ -0,0 +1,62 @@
+import java.util.Iterator;
+
+/**
+ * PrimitiveHMIterator class implements the Iterator interface for IntHashMap and LongHashMap.
+ * It walks the value slots of the map, skipping free (null) slots.
+ *
+ * @param <T> The type of values stored in the HashMap
+ */
+public class PrimitiveHMIterator<T> implements Iterator<T> {
+    static final Object NULL_VALUE = new Object();  // Stored in place of a null value.
+
+    private Object[] values;
+    private int currentSlot;
+
+    /**
+     * Constructor for PrimitiveHMIterator.
+     *
+     * @param values The value slots of the map
+     */
+    public PrimitiveHMIterator(Object[] values) {
+        this.values = values;
+        this.currentSlot = 0;
+        moveToNextOccupiedSlot();
+    }
+
+    /**
+     * Moves the iterator to the next occupied slot.
+     */
+    private void moveToNextOccupiedSlot() {
+        while (currentSlot < values.length && values[currentSlot] == null) {
+            currentSlot++;
+        }
+    }
+
+    /**
+     * Checks if there are more elements to iterate over.
+     *
+     * @return true if there are more elements, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return currentSlot < values.length;
+    }
+
+    /**
+     * Returns the next value in the iteration.
+     *
+     * @return The next value
+     * @throws java.util.NoSuchElementException if there are no more elements
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        Object value = values[currentSlot];
+        currentSlot++;
+        moveToNextOccupiedSlot();
+        return value == NULL_VALUE ? null : (T) value;
+    }
+}
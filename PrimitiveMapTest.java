@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * PrimitiveMapTest contains JUnit tests for the primitive-keyed maps IntHashMap, LongHashMap and
+ * LongLongMap, checking each against java.util.HashMap on the same operations.
+ */
+public class PrimitiveMapTest {
+
+    @Test
+    void testIntHashMapBasics() {
+        // Test put, get, replace and contains, including key 0 and a null value.
+        IntHashMap<String> map = new IntHashMap<>(0, "zero");
+        map.put(1, "one");
+        map.put(-1, null);
+        assertEquals(3, map.size());
+        assertEquals("zero", map.get(0));
+        assertTrue(map.contains(-1));
+        assertNull(map.get(-1));
+        assertEquals("one", map.replace(1, "uno"));
+        assertEquals("uno", map.get(1));
+        assertNull(map.replace(2, "two"));
+        assertFalse(map.contains(2));
+    }
+
+    @Test
+    void testIntHashMapMatchesJavaHashMap() {
+        // Test a random mix of puts and removes so that resizing and backward-shift deletion
+        // are both exercised.
+        IntHashMap<Integer> map = new IntHashMap<>(-7, -7);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        expected.put(-7, -7);
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) > 0) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -1000; key < 1000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        long sum = 0;
+        for (int value : map) {
+            sum += value;
+        }
+        assertEquals(expected.values().stream().mapToLong(Integer::longValue).sum(), sum);
+    }
+
+    @Test
+    void testLongHashMapWideKeys() {
+        // Test keys that differ only in their upper 32 bits.
+        LongHashMap<Long> map = new LongHashMap<>(1L, 1L);
+        for (long i = 0; i < 1000; i++) {
+            map.put(i << 32, i);
+        }
+        assertEquals(1001, map.size());
+        for (long i = 0; i < 1000; i++) {
+            assertEquals(i, (long) map.get(i << 32));
+        }
+        assertEquals(1L, (long) map.remove(1L));
+        assertFalse(map.contains(1L));
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    void testLongLongMapCounters() {
+        // Test addTo as a counter, including key 0, which is kept outside the arrays.
+        LongLongMap counts = new LongLongMap(0, 0);
+        for (int i = 0; i < 10000; i++) {
+            counts.addTo(i % 100, 1);
+        }
+        assertEquals(100, counts.size());
+        assertEquals(100, counts.get(0));
+        assertEquals(100, counts.get(99));
+        assertEquals(-1, counts.get(100, -1));
+        assertTrue(counts.replace(5, 7));
+        assertFalse(counts.replace(500, 7));
+        assertTrue(counts.remove(0));
+        assertFalse(counts.contains(0));
+        assertTrue(counts.remove(5));
+        assertEquals(98, counts.size());
+        long[] total = new long[1];
+        counts.forEach((key, value) -> total[0] += value);
+        assertEquals(9800, total[0]);
+    }
+}
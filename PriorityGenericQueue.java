@@ -0,0 +1,324 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * PriorityGenericQueue is the priority mode of GenericQueue: the code attached to each element
+ * is its priority, and dequeue returns the element with the lowest code instead of the oldest
+ * one. Elements with equal codes come out in the order they were added, so a priority level
+ * behaves like a FIFO queue.
+ *
+ * The elements are kept in a 4-ary heap stored in an array, which needs fewer levels than a
+ * binary heap and keeps each node's children next to each other in memory. enqueue and dequeue
+ * are O(log n). enqueue returns a Handle, the heap node itself, through which the priority of a
+ * queued element can be lowered (decreaseKey) or the element removed, both in O(log n), without
+ * searching the heap.
+ *
+ * Iteration, get and set follow the order of the heap array, not priority order, like
+ * java.util.PriorityQueue.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class PriorityGenericQueue<T> extends GenericList<T> {
+    private static final int ARITY = 4;             // Children per heap node.
+    private static final int DEFAULT_CAPACITY = 16; // Initial size of the heap array.
+
+    private Handle<T>[] heap;
+    private long nextSequence;  // Arrival order, the tie-break for equal priorities.
+
+    /**
+     * Handle is the node of a queued element. Its code field is the element's priority, and it
+     * remembers its position in the heap so it can be found in O(1).
+     *
+     * @param <T> The type of the data.
+     */
+    public static final class Handle<T> extends Node<T> {
+        int index = -1;  // Position in the heap array, or -1 once dequeued or removed.
+        long sequence;
+
+        Handle(T data, int code) {
+            super(data, code);
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public int getPriority() {
+            return code;
+        }
+
+        public boolean isQueued() {
+            return index >= 0;
+        }
+    }
+
+    /**
+     * Constructor to initialize an empty priority queue.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public PriorityGenericQueue() {
+        heap = new Handle[DEFAULT_CAPACITY];
+        setLength(0);
+    }
+
+    /**
+     * Returns true if a should be dequeued before b.
+     */
+    private static boolean before(Handle<?> a, Handle<?> b) {
+        return a.code < b.code || (a.code == b.code && a.sequence < b.sequence);
+    }
+
+    private void place(Handle<T> handle, int index) {
+        heap[index] = handle;
+        handle.index = index;
+    }
+
+    private void siftUp(Handle<T> handle, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!before(handle, heap[parent])) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(handle, index);
+    }
+
+    private void siftDown(Handle<T> handle, int index) {
+        int length = getLength();
+        while (true) {
+            int first = index * ARITY + 1;
+            if (first >= length) {
+                break;
+            }
+            int best = first;
+            int last = Math.min(first + ARITY, length);
+            for (int child = first + 1; child < last; child++) {
+                if (before(heap[child], heap[best])) {
+                    best = child;
+                }
+            }
+            if (!before(heap[best], handle)) {
+                break;
+            }
+            place(heap[best], index);
+            index = best;
+        }
+        place(handle, index);
+    }
+
+    /**
+     * Adds an element with a priority.
+     * 
+     * @param data The data to enqueue.
+     * @param code The priority; lower codes are dequeued first.
+     * @return The handle of the queued element.
+     */
+    public Handle<T> enqueue(T data, int code) {
+        int length = getLength();
+        if (length == heap.length) {
+            heap = Arrays.copyOf(heap, length << 1);
+        }
+        Handle<T> handle = new Handle<>(data, code);
+        handle.sequence = nextSequence++;
+        setLength(length + 1);
+        siftUp(handle, length);
+        return handle;
+    }
+
+    /**
+     * Adds an element with a priority.
+     * 
+     * @param data The data to add.
+     * @param code The priority; lower codes are dequeued first.
+     */
+    public void add(T data, int code) {
+        enqueue(data, code);
+    }
+
+    /**
+     * Adds an element with priority 0, the default code of a node.
+     * 
+     * @param data The data to add.
+     */
+    @Override
+    public void add(T data) {
+        enqueue(data, 0);
+    }
+
+    /**
+     * Returns the element that would be dequeued next without removing it.
+     * 
+     * @return The element with the lowest priority code, or null if the queue is empty.
+     */
+    public T peek() {
+        return getLength() == 0 ? null : heap[0].data;
+    }
+
+    /**
+     * Removes and returns the element with the lowest priority code; the oldest of them if
+     * several share it.
+     * 
+     * @return The element, or null if the queue is empty.
+     */
+    @Override
+    public T delete() {
+        if (getLength() == 0) {
+            return null;
+        }
+        Handle<T> top = heap[0];
+        removeAt(0);
+        return top.data;
+    }
+
+    /**
+     * Removes and returns the element with the lowest priority code.
+     * 
+     * @return The element, or null if the queue is empty.
+     */
+    public T dequeue() {
+        return delete();
+    }
+
+    /**
+     * Removes the element at a heap position by moving the last element into its place.
+     */
+    private void removeAt(int index) {
+        Handle<T> removed = heap[index];
+        int last = getLength() - 1;
+        Handle<T> moved = heap[last];
+        heap[last] = null;
+        setLength(last);
+        removed.index = -1;
+        if (index != last) {
+            siftDown(moved, index);
+            if (moved.index == index) {
+                siftUp(moved, index);  // The moved element may belong higher up instead.
+            }
+        }
+    }
+
+    private void checkQueued(Handle<T> handle) {
+        if (handle.index < 0 || handle.index >= getLength() || heap[handle.index] != handle) {
+            throw new IllegalArgumentException("Handle is not in this queue");
+        }
+    }
+
+    /**
+     * Lowers the priority code of a queued element, moving it towards the front. It then counts
+     * as the newest element of its new priority. Passing the current code changes nothing.
+     * 
+     * @param handle The handle returned when the element was enqueued.
+     * @param code The new priority code, no higher than the current one.
+     * @throws IllegalArgumentException if the handle is not queued here or the code is higher.
+     */
+    public void decreaseKey(Handle<T> handle, int code) {
+        checkQueued(handle);
+        if (code > handle.code) {
+            throw new IllegalArgumentException("New priority " + code + " is higher than " + handle.code);
+        }
+        if (code == handle.code) {
+            return;  // A fresh sequence number alone would move it back, not forward.
+        }
+        handle.code = code;
+        handle.sequence = nextSequence++;
+        siftUp(handle, handle.index);
+        structureChanged();  // Iterators walk the heap array, which has just been reordered.
+    }
+
+    /**
+     * Removes a queued element, for example a cancelled job.
+     * 
+     * @param handle The handle returned when the element was enqueued.
+     * @return true if the element was queued and has been removed, false if it was not queued.
+     */
+    public boolean remove(Handle<T> handle) {
+        if (!handle.isQueued()) {
+            return false;
+        }
+        checkQueued(handle);
+        removeAt(handle.index);
+        return true;
+    }
+
+    /**
+     * Gets the element at a position of the heap array.
+     * 
+     * @param index The position.
+     * @return The element, or null if index is out of bounds.
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= getLength()) {
+            return null;
+        }
+        return heap[index].data;
+    }
+
+    /**
+     * Replaces the element at a position of the heap array, keeping its priority.
+     * 
+     * @param index The position.
+     * @param element The new element.
+     * @return The previous element, or null if index is out of bounds.
+     */
+    @Override
+    public T set(int index, T element) {
+        if (index < 0 || index >= getLength()) {
+            return null;
+        }
+        T oldValue = heap[index].data;
+        heap[index].data = element;
+        return oldValue;
+    }
+
+    /**
+     * Prints the elements in heap order. If the queue is empty, it prints "Empty List".
+     */
+    @Override
+    public void print() {
+        if (getLength() == 0) {
+            System.out.println("Empty List");
+            return;
+        }
+        for (int i = 0; i < getLength(); i++) {
+            System.out.println(heap[i].data);
+        }
+    }
+
+    /**
+     * Copies the elements into an ArrayList in heap order.
+     * 
+     * @return ArrayList containing all elements.
+     */
+    @Override
+    public ArrayList<T> dumpList() {
+        ArrayList<T> result = new ArrayList<>(getLength());
+        for (int i = 0; i < getLength(); i++) {
+            result.add(heap[i].data);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a fail-fast iterator over the elements in heap order.
+     * 
+     * @return An iterator over the elements.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new PGQIterator<>(this, false);
+    }
+
+    /**
+     * Returns a fail-fast iterator over the elements in reverse heap order.
+     * 
+     * @return An iterator over the elements.
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new PGQIterator<>(this, true);
+    }
+}
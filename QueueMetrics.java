@@ -0,0 +1,32 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QueueMetrics holds the counters a GenericQueue keeps once metrics are enabled: how many elements
+ * have been enqueued and dequeued, and the largest depth the queue has reached. The counters never
+ * lock, so a monitoring thread can read them while the queue is in use. A queue without metrics
+ * has no QueueMetrics at all and pays only a null check per operation.
+ */
+public final class QueueMetrics {
+    final long startNanos = System.nanoTime();  // When metrics were enabled; rates are measured from here.
+    final LongAdder enqueues = new LongAdder();
+    final LongAdder dequeues = new LongAdder();
+    final AtomicLong highWaterMark = new AtomicLong();
+
+    /**
+     * Records elements added to a queue that now holds depth elements.
+     */
+    void enqueued(int count, int depth) {
+        enqueues.add(count);
+        if (depth > highWaterMark.get()) {
+            highWaterMark.set(depth);  // Only the queue's own thread writes it.
+        }
+    }
+
+    /**
+     * Records elements removed from a queue.
+     */
+    void dequeued(int count) {
+        dequeues.add(count);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * QueueStats is an immutable snapshot of a GenericQueue's statistics, returned by
+ * GenericQueue.stats(). The length is always available; the counters are only kept while metrics
+ * are enabled and are zero otherwise. Rates are averages per second since metrics were enabled.
+ */
+public final class QueueStats implements QueueStatsMXBean {
+    private final boolean metricsEnabled;
+    private final int length;
+    private final long highWaterMark;
+    private final long enqueueCount;
+    private final long dequeueCount;
+    private final long elapsedNanos;
+
+    QueueStats(QueueMetrics metrics, int length) {
+        this.metricsEnabled = metrics != null;
+        this.length = length;
+        this.highWaterMark = metrics == null ? 0 : Math.max(length, metrics.highWaterMark.get());
+        this.enqueueCount = metrics == null ? 0 : metrics.enqueues.sum();
+        this.dequeueCount = metrics == null ? 0 : metrics.dequeues.sum();
+        this.elapsedNanos = metrics == null ? 0 : System.nanoTime() - metrics.startNanos;
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    @Override
+    public long getEnqueueCount() {
+        return enqueueCount;
+    }
+
+    @Override
+    public long getDequeueCount() {
+        return dequeueCount;
+    }
+
+    @Override
+    public double getEnqueueRate() {
+        return elapsedNanos <= 0 ? 0 : enqueueCount * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public double getDequeueRate() {
+        return elapsedNanos <= 0 ? 0 : dequeueCount * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueStats{length=" + length + ", highWaterMark=" + highWaterMark + ", enqueues=" + enqueueCount
+                + ", dequeues=" + dequeueCount + "}";
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * QueueStatsMXBean is the JMX view of a GenericQueue's statistics. GenericQueue.registerMBean
+ * registers a live instance whose attributes are read from a fresh QueueStats snapshot.
+ */
+public interface QueueStatsMXBean {
+
+    boolean isMetricsEnabled();
+
+    int getLength();
+
+    long getHighWaterMark();
+
+    long getEnqueueCount();
+
+    long getDequeueCount();
+
+    double getEnqueueRate();
+
+    double getDequeueRate();
+}
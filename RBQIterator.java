@@ -0,0 +1,56 @@
+import java.util.Iterator;
+
+/**
+ * RBQIterator is the iterator for RingBufferQueue. It reads the ring array directly between a
+ * head and tail index captured when it was created, in either direction, so no copy of the
+ * queue is made.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class RBQIterator<T> implements Iterator<T> {
+    private RingBufferQueue<T> queue;
+    private long next;        // Ring index of the next element to return.
+    private long end;         // Ring index one step past the last element to return.
+    private boolean descending;
+
+    /**
+     * Constructor for RBQIterator.
+     *
+     * @param queue The queue to iterate over
+     * @param head The queue's head index
+     * @param tail The queue's tail index
+     * @param descending true to iterate from tail to head
+     */
+    public RBQIterator(RingBufferQueue<T> queue, long head, long tail, boolean descending) {
+        this.queue = queue;
+        this.descending = descending;
+        this.next = descending ? tail - 1 : head;
+        this.end = descending ? head - 1 : tail;
+    }
+
+    /**
+     * Checks if there are more elements to iterate over.
+     *
+     * @return true if there are more elements, false otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        return next != end;
+    }
+
+    /**
+     * Returns the next element in the iteration.
+     *
+     * @return The next element
+     * @throws java.util.NoSuchElementException if there are no more elements
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException();
+        }
+        T data = queue.slot(next);
+        next += descending ? -1 : 1;
+        return data;
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RBQTest contains JUnit tests for the RingBufferQueue class. It tests bounded offers, indexed
+ * access across the wrap point of the ring, iteration in both directions, and hand-off between
+ * threads in both the locked and single-producer/single-consumer modes.
+ */
+public class RBQTest {
+
+    @Test
+    void testOfferUntilFull() {
+        // Test that the configured capacity is enforced even though the ring is rounded up.
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(3);
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+        assertThrows(IllegalStateException.class, () -> queue.add(4));
+        assertEquals(3, queue.getLength());
+        assertEquals(1, queue.dequeue());
+        assertTrue(queue.offer(4));
+    }
+
+    @Test
+    void testDequeueEmpty() {
+        // Test that removing from an empty queue returns null like GenericQueue.
+        RingBufferQueue<String> queue = new RingBufferQueue<>(4);
+        assertNull(queue.dequeue());
+        assertNull(queue.poll());
+        assertEquals(0, queue.getLength());
+    }
+
+    @Test
+    void testGetSetAcrossWrap() {
+        // Test indexed access after head and tail have wrapped around the end of the array.
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(4);
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(i);
+            if (i >= 2) {
+                queue.dequeue();
+            }
+        }
+        // Queue now holds 4, 5 stored in the last and first slots of the ring.
+        assertEquals(2, queue.getLength());
+        assertEquals(4, queue.get(0));
+        assertEquals(5, queue.get(1));
+        assertNull(queue.get(2));  // Out of bounds
+        assertEquals(5, queue.set(1, 50));
+        assertEquals(50, queue.get(1));
+        assertNull(queue.set(-1, 0));  // Out of bounds
+    }
+
+    @Test
+    void testIteratorsBothDirections() {
+        // Test forward and descending iteration and dumpList.
+        RingBufferQueue<String> queue = new RingBufferQueue<>(8);
+        queue.enqueue("a");
+        queue.enqueue("b");
+        queue.enqueue("c");
+        Iterator<String> forward = queue.iterator();
+        assertEquals("a", forward.next());
+        assertEquals("b", forward.next());
+        assertEquals("c", forward.next());
+        assertFalse(forward.hasNext());
+        Iterator<String> backward = queue.descendingIterator();
+        assertEquals("c", backward.next());
+        assertEquals("b", backward.next());
+        assertEquals("a", backward.next());
+        assertFalse(backward.hasNext());
+        ArrayList<String> dumped = queue.dumpList();
+        assertEquals(3, dumped.size());
+        assertEquals("a", dumped.get(0));
+    }
+
+    @Test
+    void testTimedOfferTimesOut() throws InterruptedException {
+        // Test that a timed offer on a full queue gives up.
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(1);
+        queue.put(1);
+        assertFalse(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testBlockingHandOff() throws InterruptedException {
+        // Test put/take between a producer and consumer through a small locked queue.
+        assertHandOffInOrder(new RingBufferQueue<>(16, false));
+    }
+
+    @Test
+    void testSingleProducerSingleConsumerHandOff() throws InterruptedException {
+        // Test put/take between a producer and consumer in SPSC mode.
+        assertHandOffInOrder(new RingBufferQueue<>(16, true));
+    }
+
+    private static void assertHandOffInOrder(RingBufferQueue<Integer> queue) throws InterruptedException {
+        int count = 100000;
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    queue.put(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, (int) queue.take());
+        }
+        producer.join();
+        assertEquals(0, queue.getLength());
+    }
+}
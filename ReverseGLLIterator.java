@@ -1,15 +1,18 @@
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.ArrayList;
 
 /**
  * ReverseGLLIterator class implements the Iterator interface for GenericList.
- * It allows reverse iteration over the elements in the GenericList.
+ * It allows reverse iteration over the elements in the GenericList by following the prev
+ * links from the tail, so elements are produced on demand and the list is never copied. Like
+ * GLLIterator it is fail-fast if the list is structurally modified during iteration.
  *
  * @param <T> The type of elements in the GenericList
  */
 public class ReverseGLLIterator<T> implements Iterator<T> {
-    private ArrayList<T> reversedList;
-    private int currentIndex;
+    private GenericList.Node<T> current;  // The current node being iterated over.
+    private final GenericList<T> list;
+    private final int expectedModCount;
 
     /**
      * Constructor for ReverseGLLIterator.
@@ -17,13 +20,9 @@ public class ReverseGLLIterator<T> implements Iterator<T> {
      * @param list The GenericList to iterate over in reverse
      */
     public ReverseGLLIterator(GenericList<T> list) {
-        reversedList = new ArrayList<>();
-        GenericList.Node<T> current = list.getHead();
-        while (current != null) {
-            reversedList.add(0, current.data);
-            current = current.next;
-        }
-        currentIndex = 0;
+        current = list.getTail();
+        this.list = list;
+        expectedModCount = list.getModCount();
     }
 
     /**
@@ -33,7 +32,7 @@ public class ReverseGLLIterator<T> implements Iterator<T> {
      */
     @Override
     public boolean hasNext() {
-        return currentIndex < reversedList.size();
+        return current != null;
     }
 
     /**
@@ -41,12 +40,18 @@ public class ReverseGLLIterator<T> implements Iterator<T> {
      *
      * @return The next element
      * @throws java.util.NoSuchElementException if there are no more elements
+     * @throws ConcurrentModificationException if the list was modified since the iterator was created
      */
     @Override
     public T next() {
+        if (list.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
         if (!hasNext()) {
             throw new java.util.NoSuchElementException();
         }
-        return reversedList.get(currentIndex++);
+        T data = current.data;  // Get the data of the current node.
+        current = current.prev;  // Move to the previous node.
+        return data;
     }
 }
\ No newline at end of file
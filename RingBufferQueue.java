@@ -0,0 +1,475 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RingBufferQueue is a bounded queue that extends GenericList<T> and stores its elements in a
+ * power-of-two array used as a ring, so enqueue and dequeue never allocate and get/set by index
+ * are O(1). Elements can be added with a non-blocking offer, a blocking put, or add, which
+ * fails when the queue is full. As with GenericQueue, removing from an empty queue returns
+ * null, so null elements are not allowed.
+ *
+ * By default every operation is guarded by a lock, so any number of threads may use the queue.
+ * In single-producer/single-consumer mode the lock is skipped: exactly one thread may add and
+ * exactly one other thread may remove, and they coordinate through head and tail indices that
+ * are padded onto separate cache lines so the two threads don't invalidate each other's line.
+ * Each side's cached copy of the other side's index sits on the line of the index it owns, so
+ * writing it doesn't disturb the other thread either.
+ *
+ * @param <T> The type of the data stored in the queue.
+ */
+public class RingBufferQueue<T> extends GenericList<T> {
+    private final Object[] buffer;  // Ring of slots; index i lives at i & mask.
+    private final int mask;
+    private final int capacity;     // Configured maximum number of elements.
+    private final boolean singleProducerSingleConsumer;
+
+    // In SPSC mode, head.cached is the consumer's last view of tail and tail.cached the producer's of head.
+    private final PaddedIndex head = new PaddedIndex();  // Index of the next element to remove.
+    private final PaddedIndex tail = new PaddedIndex();  // Index of the next free slot.
+
+    private final ReentrantLock lock;  // Null in SPSC mode.
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    /**
+     * Padding that keeps the index off the cache line of whatever precedes it.
+     */
+    static class IndexLeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    /**
+     * The index value itself, written with lazySet, which is enough for the single writer. In
+     * SPSC mode the thread that owns the index also keeps its last view of the other index here,
+     * on the same cache line, so reading it costs nothing the owner isn't already paying.
+     */
+    static class IndexValue extends IndexLeftPadding {
+        volatile long value;
+        long cached;  // Only read and written by the thread that owns value.
+    }
+
+    /**
+     * A ring index alone on its cache line. Padding is split across the class hierarchy
+     * because the JVM keeps superclass fields before subclass fields.
+     */
+    static final class PaddedIndex extends IndexValue {
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        private static final AtomicLongFieldUpdater<IndexValue> VALUE =
+                AtomicLongFieldUpdater.newUpdater(IndexValue.class, "value");
+
+        void lazySet(long newValue) {
+            VALUE.lazySet(this, newValue);
+        }
+    }
+
+    /**
+     * Constructor to initialize an empty queue that may be shared by any number of threads.
+     *
+     * @param capacity The maximum number of elements the queue will hold.
+     */
+    public RingBufferQueue(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Constructor to initialize an empty queue.
+     *
+     * @param capacity The maximum number of elements the queue will hold.
+     * @param singleProducerSingleConsumer true if only one thread adds and only one thread removes.
+     */
+    public RingBufferQueue(int capacity, boolean singleProducerSingleConsumer) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;  // Round up to the next power of two.
+        }
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.singleProducerSingleConsumer = singleProducerSingleConsumer;
+        if (singleProducerSingleConsumer) {
+            lock = null;
+            notEmpty = null;
+            notFull = null;
+        } else {
+            lock = new ReentrantLock();
+            notEmpty = lock.newCondition();
+            notFull = lock.newCondition();
+        }
+    }
+
+    /**
+     * Returns the maximum number of elements the queue will hold.
+     *
+     * @return The configured capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds an element to the back of the queue if there is room, without waiting.
+     *
+     * @param data The data to add.
+     * @return true if the element was added, false if the queue is full.
+     * @throws NullPointerException if data is null.
+     */
+    public boolean offer(T data) {
+        if (data == null) {
+            throw new NullPointerException("RingBufferQueue does not accept null elements");
+        }
+        if (singleProducerSingleConsumer) {
+            long t = tail.value;
+            if (t - tail.cached >= capacity) {
+                tail.cached = head.value;  // Only re-read the consumer's index when it looks full.
+                if (t - tail.cached >= capacity) {
+                    return false;
+                }
+            }
+            buffer[(int) t & mask] = data;
+            tail.lazySet(t + 1);  // Publishes the slot write to the consumer.
+            return true;
+        }
+        lock.lock();
+        try {
+            if (tail.value - head.value >= capacity) {
+                return false;
+            }
+            insert(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue, waiting for room if it is full.
+     *
+     * @param data The data to add.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void put(T data) throws InterruptedException {
+        if (data == null) {
+            throw new NullPointerException("RingBufferQueue does not accept null elements");
+        }
+        if (singleProducerSingleConsumer) {
+            while (!offer(data)) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                LockSupport.parkNanos(1);  // Back off until the consumer frees a slot.
+            }
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            while (tail.value - head.value >= capacity) {
+                notFull.await();
+            }
+            insert(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an element to the back of the queue, waiting up to the given time for room.
+     *
+     * @param data The data to add.
+     * @param timeout How long to wait.
+     * @param unit The unit of the timeout.
+     * @return true if the element was added, false if the queue stayed full.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean offer(T data, long timeout, TimeUnit unit) throws InterruptedException {
+        if (data == null) {
+            throw new NullPointerException("RingBufferQueue does not accept null elements");
+        }
+        long nanos = unit.toNanos(timeout);
+        if (singleProducerSingleConsumer) {
+            long deadline = System.nanoTime() + nanos;
+            while (!offer(data)) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(1);
+            }
+            return true;
+        }
+        lock.lockInterruptibly();
+        try {
+            while (tail.value - head.value >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insert(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores an element at the tail. Caller holds the lock and has checked there is room.
+     */
+    private void insert(T data) {
+        long t = tail.value;
+        buffer[(int) t & mask] = data;
+        tail.lazySet(t + 1);
+        notEmpty.signal();
+    }
+
+    /**
+     * Adds a new element to the back of the queue.
+     *
+     * @param data The data to add to the queue.
+     * @throws IllegalStateException if the queue is full.
+     */
+    @Override
+    public void add(T data) {
+        if (!offer(data)) {
+            throw new IllegalStateException("Queue full");
+        }
+    }
+
+    /**
+     * Removes and returns the first element of the queue without waiting.
+     *
+     * @return The data of the first element or null if the queue is empty.
+     */
+    @Override
+    public T delete() {
+        if (singleProducerSingleConsumer) {
+            long h = head.value;
+            if (h >= head.cached) {
+                head.cached = tail.value;  // Only re-read the producer's index when it looks empty.
+                if (h >= head.cached) {
+                    return null;
+                }
+            }
+            return removeAt(h);
+        }
+        lock.lock();
+        try {
+            if (head.value == tail.value) {
+                return null;
+            }
+            T data = removeAt(head.value);
+            notFull.signal();
+            return data;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the first element of the queue, waiting for one if it is empty.
+     *
+     * @return The data of the first element.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T take() throws InterruptedException {
+        if (singleProducerSingleConsumer) {
+            T data;
+            while ((data = delete()) == null) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                LockSupport.parkNanos(1);  // Back off until the producer adds an element.
+            }
+            return data;
+        }
+        lock.lockInterruptibly();
+        try {
+            while (head.value == tail.value) {
+                notEmpty.await();
+            }
+            T data = removeAt(head.value);
+            notFull.signal();
+            return data;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Clears the slot at the given index and advances head past it.
+     */
+    @SuppressWarnings("unchecked")
+    private T removeAt(long h) {
+        int slot = (int) h & mask;
+        T data = (T) buffer[slot];
+        buffer[slot] = null;  // Don't keep the element reachable from the ring.
+        head.lazySet(h + 1);  // Publishes the free slot to the producer.
+        return data;
+    }
+
+    /**
+     * Removes and returns the first element of the queue without waiting.
+     *
+     * @return The data of the first element or null if the queue is empty.
+     */
+    public T poll() {
+        return delete();
+    }
+
+    /**
+     * Adds an element to the back of the queue.
+     *
+     * @param data The data to enqueue.
+     * @throws IllegalStateException if the queue is full.
+     */
+    public void enqueue(T data) {
+        add(data);
+    }
+
+    /**
+     * Removes and returns the first element of the queue.
+     *
+     * @return The data of the dequeued element, or null if the queue is empty.
+     */
+    public T dequeue() {
+        return delete();
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return The length of the queue.
+     */
+    @Override
+    public int getLength() {
+        while (true) {
+            long h = head.value;
+            long t = tail.value;
+            if (h == head.value) {
+                return (int) (t - h);  // Consistent pair: head didn't move while reading tail.
+            }
+        }
+    }
+
+    /**
+     * Gets the data at the specified index, counting from the head, in O(1).
+     *
+     * @param index The index of the element to retrieve.
+     * @return The data at the specified index or null if index is out of bounds.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            long h = head.value;
+            if (index < 0 || index >= tail.value - h) {
+                return null;  // Return null if the index is invalid.
+            }
+            return (T) buffer[(int) (h + index) & mask];
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the element at the specified index, counting from the head, in O(1).
+     *
+     * @param index The index to replace.
+     * @param element The new element to set at the index.
+     * @return The previous element at the index, or null if out of bounds.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            long h = head.value;
+            if (index < 0 || index >= tail.value - h) {
+                return null;  // Return null if index is invalid.
+            }
+            int slot = (int) (h + index) & mask;
+            T oldValue = (T) buffer[slot];
+            buffer[slot] = element;
+            return oldValue;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Prints the entire queue from head to tail. If the queue is empty, it prints "Empty List".
+     */
+    @Override
+    public void print() {
+        if (getLength() == 0) {
+            System.out.println("Empty List");
+            return;
+        }
+        for (T data : this) {
+            System.out.println(data);
+        }
+    }
+
+    /**
+     * Copies the queue, from head to tail, into an ArrayList and returns it.
+     *
+     * @return ArrayList containing all elements in the queue.
+     */
+    @Override
+    public ArrayList<T> dumpList() {
+        ArrayList<T> result = new ArrayList<>(getLength());
+        for (T data : this) {
+            result.add(data);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the element stored for an absolute ring index. Used by the iterators.
+     */
+    @SuppressWarnings("unchecked")
+    T slot(long index) {
+        return (T) buffer[(int) index & mask];
+    }
+
+    /**
+     * Returns an iterator that walks the ring from head to tail without copying it. The
+     * iterator covers the elements present when it was created; if they are dequeued while it
+     * is running, it may return elements that were added in their place.
+     *
+     * @return An iterator over the queue elements.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RBQIterator<>(this, head.value, tail.value, false);
+    }
+
+    /**
+     * Returns an iterator that walks the ring from tail to head without copying it.
+     *
+     * @return An iterator in reverse order over the queue elements.
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new RBQIterator<>(this, head.value, tail.value, true);
+    }
+}
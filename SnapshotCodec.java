@@ -0,0 +1,61 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SnapshotCodec converts keys or values to and from the bytes stored in a MapSnapshot file. A
+ * codec must be deterministic: equal objects must encode to equal bytes, because snapshot
+ * lookups compare encoded keys rather than calling equals. Null values are recorded by the
+ * snapshot itself, so a codec is never asked to encode null.
+ *
+ * @param <T> The type of the objects encoded
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * Encodes an object.
+     *
+     * @param value The object
+     * @return Its bytes
+     */
+    byte[] encode(T value);
+
+    /**
+     * Decodes an object from the bytes between the buffer's position and limit. The buffer may be
+     * a read-only view of a mapped file and may be read with relative or absolute gets.
+     *
+     * @param buffer The encoded bytes
+     * @return The object
+     */
+    T decode(ByteBuffer buffer);
+
+    /**
+     * Strings as UTF-8.
+     */
+    SnapshotCodec<String> UTF8 = new SnapshotCodec<String>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    };
+
+    /**
+     * Integers as four big-endian bytes.
+     */
+    SnapshotCodec<Integer> INTEGER = new SnapshotCodec<Integer>() {
+        @Override
+        public byte[] encode(Integer value) {
+            int v = value;
+            return new byte[] { (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v };
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt(buffer.position());
+        }
+    };
+}
@@ -0,0 +1,132 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnapshotTest contains JUnit tests for MyHashMap.save and MapSnapshot.
+ */
+public class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        // Test that every saved entry can be looked up and iterated from the mapped file.
+        MyHashMap<String, Integer> map = new MyHashMap<>("key0", 0);
+        for (int i = 1; i < 10000; i++) {
+            map.put("key" + i, i);
+        }
+        map.put("\u043a\u043b\u044e\u0447", -1);  // Multi-byte UTF-8.
+        Path file = dir.resolve("map.snapshot");
+        map.save(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+
+        MapSnapshot<String, Integer> snapshot = MapSnapshot.open(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+        assertEquals(10001, snapshot.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, (int) snapshot.get("key" + i));
+        }
+        assertEquals(-1, (int) snapshot.get("\u043a\u043b\u044e\u0447"));
+        assertTrue(snapshot.contains("key42"));
+        assertFalse(snapshot.contains("key10000"));
+        assertNull(snapshot.get("missing"));
+        assertNull(snapshot.get(null));
+
+        HashMap<String, Integer> seen = new HashMap<>();
+        snapshot.forEach(seen::put);
+        assertEquals(10001, seen.size());
+        map.forEach((key, value) -> assertEquals(value, seen.get(key)));
+    }
+
+    @Test
+    void testCustomCodecAndOverwrite() throws IOException {
+        // Test a value codec of the caller's own and that saving again replaces the file.
+        SnapshotCodec<long[]> pairs = new SnapshotCodec<long[]>() {
+            @Override
+            public byte[] encode(long[] value) {
+                return ByteBuffer.allocate(16).putLong(value[0]).putLong(value[1]).array();
+            }
+
+            @Override
+            public long[] decode(ByteBuffer buffer) {
+                return new long[] { buffer.getLong(), buffer.getLong() };
+            }
+        };
+        Path file = dir.resolve("pairs.snapshot");
+        MyHashMap<Integer, long[]> map = new MyHashMap<>(1, new long[] { 1, 2 });
+        map.save(file, SnapshotCodec.INTEGER, pairs);
+        map.put(2, new long[] { 3, 4 });
+        map.save(file, SnapshotCodec.INTEGER, pairs);
+        MapSnapshot<Integer, long[]> snapshot = MapSnapshot.open(file, SnapshotCodec.INTEGER, pairs);
+        assertEquals(2, snapshot.size());
+        assertArrayEquals(new long[] { 1, 2 }, snapshot.get(1));
+        assertArrayEquals(new long[] { 3, 4 }, snapshot.get(2));
+        assertSame(snapshot.get(2), snapshot.get(2));  // Decoded once, then kept.
+        assertFalse(Files.exists(dir.resolve("pairs.snapshot.tmp")));
+    }
+
+    @Test
+    void testExpiredEntriesNotSaved() throws IOException {
+        // Test that entries that have expired but are still stored are left out.
+        long[] now = { 0 };
+        MyHashMap<String, Integer> map = new MyHashMap<>("old", 1);
+        map.setClock(() -> now[0]);
+        map.expireAfterWrite(1, TimeUnit.SECONDS);
+        now[0] = TimeUnit.SECONDS.toNanos(2);
+        Path file = dir.resolve("expiry.snapshot");
+        map.save(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+        MapSnapshot<String, Integer> snapshot = MapSnapshot.open(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+        assertEquals(0, snapshot.size());
+        assertFalse(snapshot.contains("old"));
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        // Test that a file that isn't a snapshot, or is truncated, is refused.
+        Path file = dir.resolve("other");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> MapSnapshot.open(file, SnapshotCodec.UTF8, SnapshotCodec.UTF8));
+        MyHashMap<String, String> map = new MyHashMap<>("a", "b");
+        Path saved = dir.resolve("map.snapshot");
+        map.save(saved, SnapshotCodec.UTF8, SnapshotCodec.UTF8);
+        byte[] bytes = Files.readAllBytes(saved);
+        Files.write(saved, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MapSnapshot.open(saved, SnapshotCodec.UTF8, SnapshotCodec.UTF8));
+    }
+
+    @Test
+    void testNullValues() throws IOException {
+        // Test that null values are saved without reaching the codec and read back as null.
+        MyHashMap<String, Integer> map = new MyHashMap<>("present", 1);
+        map.put("absent", null);
+        Path file = dir.resolve("nulls.snapshot");
+        map.save(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+        MapSnapshot<String, Integer> snapshot = MapSnapshot.open(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+        assertEquals(2, snapshot.size());
+        assertEquals(1, (int) snapshot.get("present"));
+        assertTrue(snapshot.contains("absent"));
+        assertNull(snapshot.get("absent"));
+        assertNull(snapshot.get("absent"));  // Served from the cache of decoded values.
+        HashMap<String, Integer> visited = new HashMap<>();
+        snapshot.forEach(visited::put);
+        assertTrue(visited.containsKey("absent"));
+        assertNull(visited.get("absent"));
+    }
+
+    @Test
+    void testFailedSaveLeavesNoTempFile() throws IOException {
+        // Test that a save that can't be moved into place cleans up its temporary file.
+        Path target = dir.resolve("taken");
+        Files.createDirectories(target.resolve("child"));  // A non-empty directory can't be replaced.
+        MyHashMap<String, String> map = new MyHashMap<>("a", "b");
+        assertThrows(IOException.class, () -> map.save(target, SnapshotCodec.UTF8, SnapshotCodec.UTF8));
+        assertFalse(Files.exists(dir.resolve("taken.tmp")));
+        assertTrue(Files.isDirectory(target));
+    }
+}
@@ -0,0 +1,238 @@
+import java.util.ArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * TimingWheel keeps track of when the entries of a MyHashMap expire, so that expired entries can
+ * be removed without scanning the map. It is a hierarchical timing wheel: five levels of 64
+ * slots, where a slot of level 0 covers about a second (2^30 ns) and each level's slots are 64
+ * times wider than the level below. An entry is put in the slot of the lowest level whose range
+ * reaches its expiration time, so scheduling is O(1).
+ *
+ * When the wheel is advanced, only the slots whose time has passed are visited. Their entries
+ * are either removed from the map, if they have expired, or moved down to a finer level. The
+ * cost of an advance is therefore proportional to the number of entries that expire (plus at
+ * most one move per level for each other entry), not to the size of the map.
+ *
+ * Slots are GenericQueues. Each entry owns one timer node that is moved between slots with
+ * addNode and unlink, and the node's code field holds the index of its slot.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
+ */
+public class TimingWheel<K, V> {
+    private static final int SLOTS = 64;                         // Slots per level (power of two).
+    private static final int[] SHIFTS = { 30, 36, 42, 48, 54 };  // log2 of each level's slot width in ns.
+    private static final int UNSCHEDULED = -1;                   // Timer code of an entry in no slot.
+
+    /**
+     * TimedEntry is a map entry that also records when it was written and read, when it expires,
+     * and the node that links it into the wheel.
+     *
+     * @param <K> The type of the key
+     * @param <V> The type of the value
+     */
+    static final class TimedEntry<K, V> extends MyHashMap.MapEntry<K, V> {
+        long writeTime;   // Wheel time of the last write.
+        long accessTime;  // Wheel time of the last read or write.
+        long expiresAt;   // Wheel time at which the entry expires.
+        final GenericList.Node<TimedEntry<K, V>> timer;
+
+        TimedEntry(K key, V value) {
+            super(key, value);
+            this.timer = new GenericList.Node<>(this, UNSCHEDULED);
+        }
+    }
+
+    private final MyHashMap<K, V> map;
+    private final LongSupplier clock;
+    private final long origin;  // Clock reading when the wheel was created; wheel time starts at 0.
+    private final ArrayList<GenericQueue<TimedEntry<K, V>>> slots;
+    private final GenericQueue<TimedEntry<K, V>> pending = new GenericQueue<>();  // Slot being expired.
+    private long expireAfterWrite;   // Nanoseconds, or 0 if entries don't expire after a write.
+    private long expireAfterAccess;  // Nanoseconds, or 0 if entries don't expire after a read.
+    private long time;               // Wheel time up to which slots have been expired.
+
+    /**
+     * Constructor for TimingWheel.
+     *
+     * @param map The map whose expired entries are removed
+     * @param clock Returns the current time in nanoseconds, like System.nanoTime
+     */
+    TimingWheel(MyHashMap<K, V> map, LongSupplier clock) {
+        this.map = map;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.slots = new ArrayList<>(SHIFTS.length * SLOTS);
+        for (int i = 0; i < SHIFTS.length * SLOTS; i++) {
+            slots.add(new GenericQueue<>());
+        }
+    }
+
+    void setExpireAfterWrite(long nanos) {
+        this.expireAfterWrite = nanos;
+    }
+
+    void setExpireAfterAccess(long nanos) {
+        this.expireAfterAccess = nanos;
+    }
+
+    /**
+     * Returns the current wheel time.
+     */
+    private long now() {
+        return clock.getAsLong() - origin;
+    }
+
+    /**
+     * Creates an entry and schedules it as just written.
+     *
+     * @param key The key
+     * @param value The value
+     * @return The new entry
+     */
+    TimedEntry<K, V> newEntry(K key, V value) {
+        TimedEntry<K, V> entry = new TimedEntry<>(key, value);
+        onWrite(entry);
+        return entry;
+    }
+
+    /**
+     * Restarts both expiration periods of an entry.
+     *
+     * @param entry The entry that was written
+     */
+    void onWrite(MyHashMap.MapEntry<K, V> entry) {
+        TimedEntry<K, V> timed = (TimedEntry<K, V>) entry;
+        timed.writeTime = now();
+        timed.accessTime = timed.writeTime;
+        reschedule(timed);
+    }
+
+    /**
+     * Restarts the expire-after-access period of an entry, if there is one.
+     *
+     * @param entry The entry that was read
+     */
+    void onAccess(MyHashMap.MapEntry<K, V> entry) {
+        if (expireAfterAccess == 0) {
+            return;
+        }
+        TimedEntry<K, V> timed = (TimedEntry<K, V>) entry;
+        timed.accessTime = now();
+        reschedule(timed);
+    }
+
+    /**
+     * Checks whether an entry has expired, even if the wheel has not removed it yet.
+     *
+     * @param entry The entry
+     * @return true if the entry has expired
+     */
+    boolean isExpired(MyHashMap.MapEntry<K, V> entry) {
+        return now() >= ((TimedEntry<K, V>) entry).expiresAt;
+    }
+
+    /**
+     * Takes an entry out of the wheel, when it is removed from the map.
+     *
+     * @param entry The entry
+     */
+    void deschedule(MyHashMap.MapEntry<K, V> entry) {
+        GenericList.Node<TimedEntry<K, V>> timer = ((TimedEntry<K, V>) entry).timer;
+        if (timer.code != UNSCHEDULED) {
+            slots.get(timer.code).unlink(timer);
+            timer.code = UNSCHEDULED;
+        }
+    }
+
+    /**
+     * Recomputes an entry's expiration time from its write and access times and moves it to
+     * the matching slot.
+     *
+     * @param entry The entry
+     */
+    void reschedule(TimedEntry<K, V> entry) {
+        deschedule(entry);
+        long expiresAt = Long.MAX_VALUE;
+        if (expireAfterWrite > 0) {
+            expiresAt = saturatedAdd(entry.writeTime, expireAfterWrite);
+        }
+        if (expireAfterAccess > 0) {
+            expiresAt = Math.min(expiresAt, saturatedAdd(entry.accessTime, expireAfterAccess));
+        }
+        entry.expiresAt = expiresAt;
+        schedule(entry);
+    }
+
+    private static long saturatedAdd(long time, long duration) {
+        long sum = time + duration;
+        return sum < time ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Links an entry into the slot of the lowest level whose 64 slots reach its expiration time.
+     */
+    private void schedule(TimedEntry<K, V> entry) {
+        long delay = entry.expiresAt - time;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delay >= 1L << SHIFTS[level + 1]) {
+            level++;
+        }
+        long at = Math.max(entry.expiresAt, time);  // Overdue entries go in the current slot.
+        int slot = level * SLOTS + (int) ((at >>> SHIFTS[level]) & (SLOTS - 1));
+        entry.timer.code = slot;
+        slots.get(slot).addNode(entry.timer);
+    }
+
+    /**
+     * Advances the wheel to the current time, removing the entries that have expired from the
+     * map. Only the slots whose time has passed since the last advance are visited.
+     *
+     * @return The number of entries removed
+     */
+    int advance() {
+        long previous = time;
+        long now = now();
+        time = now;
+        int removed = 0;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previous >>> SHIFTS[level];
+            long currentTicks = now >>> SHIFTS[level];
+            if (currentTicks <= previousTicks) {
+                break;  // Coarser levels can't have ticked either.
+            }
+            // The previous slot is included: entries due later in its tick were left in it.
+            long count = Math.min(currentTicks - previousTicks + 1, SLOTS);
+            for (long tick = previousTicks; tick < previousTicks + count; tick++) {
+                removed += expire(level * SLOTS + (int) (tick & (SLOTS - 1)), now);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the expired entries of a slot from the map and reschedules the rest, which moves
+     * them to finer levels as their time approaches.
+     */
+    private int expire(int slot, long now) {
+        GenericQueue<TimedEntry<K, V>> queue = slots.get(slot);
+        if (queue.getLength() == 0) {
+            return 0;
+        }
+        queue.drainTo(pending);  // Rescheduled entries may land in this same slot again.
+        int removed = 0;
+        GenericList.Node<TimedEntry<K, V>> node;
+        while ((node = pending.getHead()) != null) {
+            pending.unlink(node);
+            node.code = UNSCHEDULED;
+            TimedEntry<K, V> entry = node.data;
+            if (now >= entry.expiresAt) {
+                map.removeExpired(entry);
+                removed++;
+            } else {
+                schedule(entry);
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,409 @@
+import java.util.function.Consumer;
+
+/**
+ * TreeBucket is the bucket MyHashMap switches to when too many keys land in one chain. It is
+ * still a GenericQueue, so iteration, resizing and HMIterator keep walking the linked nodes as
+ * before, but every node is also kept in a balanced (AVL) search tree, so lookups in the bucket
+ * take O(log n) instead of a linear scan. Every GenericQueue operation that adds, removes or
+ * replaces entries is overridden, or goes through one that is, so the tree always holds exactly
+ * the nodes of the list.
+ *
+ * The tree is ordered by the cached hash code in each node's code field, then by the keys'
+ * compareTo when both keys are of the same Comparable class and the map has no hashing strategy,
+ * then by insertion order. Keys that share a hash and cannot be compared are found by searching
+ * both sides of the tree, as java.util.HashMap does.
+ *
+ * @param <K> The type of keys in the HashMap
+ * @param <V> The type of values stored in the HashMap
+ */
+public class TreeBucket<K, V> extends GenericQueue<MyHashMap.MapEntry<K, V>> {
+    private final HashingStrategy<? super K> strategy;  // Null means the keys' own equals/compareTo.
+    private TreeNode<K, V> root;
+    private int nextSequence;  // Final tie-break so that the tree order is strict.
+
+    /**
+     * TreeNode is a list node that also has the links of an AVL tree.
+     *
+     * @param <K> The type of the key
+     * @param <V> The type of the value
+     */
+    static final class TreeNode<K, V> extends Node<MyHashMap.MapEntry<K, V>> {
+        TreeNode<K, V> left;
+        TreeNode<K, V> right;
+        int height;    // Height of the subtree rooted here; a leaf has height 1.
+        int sequence;  // Insertion order within the bucket.
+
+        TreeNode(MyHashMap.MapEntry<K, V> data, int code) {
+            super(data, code);
+        }
+    }
+
+    /**
+     * Constructor to initialize an empty tree bucket.
+     *
+     * @param strategy The map's hashing strategy, or null if keys use their own equals
+     */
+    public TreeBucket(HashingStrategy<? super K> strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Builds a tree bucket holding the entries of a chain, in the same order. Nodes that are
+     * already tree nodes are reused; plain nodes are copied.
+     *
+     * @param chain The chain to convert
+     * @param strategy The map's hashing strategy, or null if keys use their own equals
+     * @return The tree bucket
+     */
+    static <K, V> TreeBucket<K, V> treeify(GenericQueue<MyHashMap.MapEntry<K, V>> chain,
+                                           HashingStrategy<? super K> strategy) {
+        TreeBucket<K, V> bucket = new TreeBucket<>(strategy);
+        Node<MyHashMap.MapEntry<K, V>> node = chain.getHead();
+        while (node != null) {
+            Node<MyHashMap.MapEntry<K, V>> next = node.next;
+            TreeNode<K, V> treeNode = node instanceof TreeNode
+                    ? (TreeNode<K, V>) node
+                    : new TreeNode<>(node.data, node.code);
+            bucket.link(treeNode);
+            node = next;
+        }
+        return bucket;
+    }
+
+    /**
+     * Adds a new entry to the back of the bucket's list and into the tree.
+     *
+     * @param data The entry to add.
+     * @param code The spread hash code of the entry's key.
+     */
+    @Override
+    public void add(MyHashMap.MapEntry<K, V> data, int code) {
+        link(new TreeNode<>(data, code));
+    }
+
+    /**
+     * Adds a new entry to the back of the bucket's list and into the tree, hashing its key with
+     * the map's strategy.
+     *
+     * @param data The entry to add.
+     */
+    @Override
+    public void add(MyHashMap.MapEntry<K, V> data) {
+        link(new TreeNode<>(data, MyHashMap.hash(data.key, strategy)));
+    }
+
+    /**
+     * Links a chain of nodes one by one, so each is also inserted into the tree. Tree nodes are
+     * reused; plain nodes are copied. Codes are recomputed from the keys, because nodes from a
+     * plain queue don't carry hash codes.
+     */
+    @Override
+    protected void appendChain(Node<MyHashMap.MapEntry<K, V>> first, Node<MyHashMap.MapEntry<K, V>> last, int count) {
+        Node<MyHashMap.MapEntry<K, V>> node = first;
+        for (int i = 0; i < count; i++) {
+            Node<MyHashMap.MapEntry<K, V>> next = node.next;
+            int code = MyHashMap.hash(node.data.key, strategy);
+            TreeNode<K, V> treeNode = node instanceof TreeNode ? (TreeNode<K, V>) node : new TreeNode<>(node.data, code);
+            treeNode.code = code;
+            link(treeNode);
+            node = next;
+        }
+    }
+
+    /**
+     * Removes up to max entries from the front and passes them to the consumer. They are taken
+     * out of the tree first, then cut off the list as GenericQueue does.
+     *
+     * @param max The largest number of entries to remove.
+     * @param consumer Receives each removed entry.
+     * @return The number of entries removed.
+     */
+    @Override
+    public int dequeue(int max, Consumer<? super MyHashMap.MapEntry<K, V>> consumer) {
+        Node<MyHashMap.MapEntry<K, V>> node = getHead();
+        for (int i = 0; i < max && node != null; i++) {
+            TreeNode<K, V> treeNode = (TreeNode<K, V>) node;
+            root = remove(root, treeNode);
+            treeNode.left = null;
+            treeNode.right = null;
+            node = node.next;
+        }
+        return super.dequeue(max, consumer);
+    }
+
+    /**
+     * Moves every entry to the back of another queue, leaving this bucket and its tree empty.
+     *
+     * @param target The queue to move the entries to.
+     * @return The number of entries moved.
+     */
+    @Override
+    public int drainTo(GenericQueue<MyHashMap.MapEntry<K, V>> target) {
+        int count = super.drainTo(target);
+        root = null;
+        return count;
+    }
+
+    /**
+     * Replaces the entry at an index. The node is taken out of the tree and put back under the
+     * new entry's hash, so the tree stays ordered even if the key changes.
+     *
+     * @param index The index to replace.
+     * @param element The new entry.
+     * @return The previous entry at the index, or null if out of bounds.
+     */
+    @Override
+    public MyHashMap.MapEntry<K, V> set(int index, MyHashMap.MapEntry<K, V> element) {
+        if (index < 0 || index >= getLength()) {
+            return null;
+        }
+        Node<MyHashMap.MapEntry<K, V>> node = getHead();
+        for (int i = 0; i < index; i++) {
+            node = node.next;
+        }
+        TreeNode<K, V> treeNode = (TreeNode<K, V>) node;
+        root = remove(root, treeNode);
+        MyHashMap.MapEntry<K, V> oldValue = treeNode.data;
+        treeNode.data = element;
+        treeNode.code = MyHashMap.hash(element.key, strategy);
+        treeNode.left = null;
+        treeNode.right = null;
+        treeNode.height = 1;
+        root = insert(root, treeNode);
+        return oldValue;
+    }
+
+    /**
+     * Appends a tree node to the list and inserts it into the tree.
+     */
+    private void link(TreeNode<K, V> node) {
+        node.left = null;
+        node.right = null;
+        node.height = 1;
+        node.sequence = nextSequence++;
+        addNode(node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes a node from both the list and the tree.
+     *
+     * @param node The node to remove; it must belong to this bucket.
+     */
+    @Override
+    protected void unlink(Node<MyHashMap.MapEntry<K, V>> node) {
+        TreeNode<K, V> treeNode = (TreeNode<K, V>) node;
+        root = remove(root, treeNode);
+        treeNode.left = null;
+        treeNode.right = null;
+        super.unlink(node);
+    }
+
+    /**
+     * Removes and returns the first entry, keeping the tree in step with the list.
+     *
+     * @return The first entry or null if the bucket is empty.
+     */
+    @Override
+    public MyHashMap.MapEntry<K, V> delete() {
+        Node<MyHashMap.MapEntry<K, V>> head = getHead();
+        if (head == null) {
+            return null;
+        }
+        unlink(head);
+        return head.data;
+    }
+
+    /**
+     * Removes and returns the last entry, keeping the tree in step with the list.
+     *
+     * @return The last entry or null if the bucket is empty.
+     */
+    @Override
+    public MyHashMap.MapEntry<K, V> removeLast() {
+        Node<MyHashMap.MapEntry<K, V>> tail = getTail();
+        if (tail == null) {
+            return null;
+        }
+        unlink(tail);
+        return tail.data;
+    }
+
+    /**
+     * Turns the bucket back into a plain chain holding the same nodes in the same order.
+     *
+     * @return The chain
+     */
+    GenericQueue<MyHashMap.MapEntry<K, V>> untreeify() {
+        GenericQueue<MyHashMap.MapEntry<K, V>> chain = new GenericQueue<>();
+        Node<MyHashMap.MapEntry<K, V>> node = getHead();
+        while (node != null) {
+            Node<MyHashMap.MapEntry<K, V>> next = node.next;
+            chain.addNode(node);  // Tree links are left behind and ignored by the chain.
+            node = next;
+        }
+        return chain;
+    }
+
+    /**
+     * Finds the node holding a key.
+     *
+     * @param key The key
+     * @param hashCode The spread hash code of the key
+     * @return The node holding the key, or null if the key is not in the bucket
+     */
+    Node<MyHashMap.MapEntry<K, V>> find(K key, int hashCode) {
+        return find(root, key, hashCode);
+    }
+
+    private TreeNode<K, V> find(TreeNode<K, V> node, K key, int hashCode) {
+        while (node != null) {
+            if (hashCode != node.code) {
+                node = hashCode < node.code ? node.left : node.right;
+                continue;
+            }
+            K stored = node.data.key;
+            if (strategy == null ? stored.equals(key) : strategy.equals(stored, key)) {
+                return node;
+            }
+            int cmp = compareKeys(key, stored);
+            if (cmp != 0) {
+                node = cmp < 0 ? node.left : node.right;
+                continue;
+            }
+            // Same hash and no usable ordering: the key may be on either side.
+            TreeNode<K, V> found = find(node.right, key, hashCode);
+            if (found != null) {
+                return found;
+            }
+            node = node.left;
+        }
+        return null;
+    }
+
+    /**
+     * Orders two keys with equal hash codes by compareTo when that is meaningful, otherwise 0.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private int compareKeys(K a, K b) {
+        if (strategy != null || !(a instanceof Comparable) || a.getClass() != b.getClass()) {
+            return 0;  // A strategy's equality may disagree with compareTo, so don't use it.
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /**
+     * Strict order used for placing nodes: hash, then key, then insertion order.
+     */
+    private int order(TreeNode<K, V> a, TreeNode<K, V> b) {
+        if (a.code != b.code) {
+            return a.code < b.code ? -1 : 1;
+        }
+        int cmp = compareKeys(a.data.key, b.data.key);
+        return cmp != 0 ? cmp : Integer.compare(a.sequence, b.sequence);
+    }
+
+    private TreeNode<K, V> insert(TreeNode<K, V> subtree, TreeNode<K, V> node) {
+        if (subtree == null) {
+            return node;
+        }
+        if (order(node, subtree) < 0) {
+            subtree.left = insert(subtree.left, node);
+        } else {
+            subtree.right = insert(subtree.right, node);
+        }
+        return rebalance(subtree);
+    }
+
+    /**
+     * Removes a node from a subtree, found by the same strict order used to insert it.
+     */
+    private TreeNode<K, V> remove(TreeNode<K, V> subtree, TreeNode<K, V> node) {
+        if (subtree == null) {
+            return null;
+        }
+        if (subtree != node) {
+            if (order(node, subtree) < 0) {
+                subtree.left = remove(subtree.left, node);
+            } else {
+                subtree.right = remove(subtree.right, node);
+            }
+            return rebalance(subtree);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        TreeNode<K, V> successor = node.right;  // Replace with the smallest node on the right.
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        successor.right = removeMin(node.right);
+        successor.left = node.left;
+        return rebalance(successor);
+    }
+
+    private TreeNode<K, V> removeMin(TreeNode<K, V> subtree) {
+        if (subtree.left == null) {
+            return subtree.right;
+        }
+        subtree.left = removeMin(subtree.left);
+        return rebalance(subtree);
+    }
+
+    private static int height(TreeNode<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(TreeNode<?, ?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private TreeNode<K, V> rotateRight(TreeNode<K, V> node) {
+        TreeNode<K, V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private TreeNode<K, V> rotateLeft(TreeNode<K, V> node) {
+        TreeNode<K, V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    /**
+     * Restores the AVL balance of a subtree whose children differ in height by at most two.
+     */
+    private TreeNode<K, V> rebalance(TreeNode<K, V> node) {
+        updateHeight(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the height of the tree, for tests.
+     */
+    int treeHeight() {
+        return height(root);
+    }
+}
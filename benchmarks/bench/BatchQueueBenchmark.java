@@ -0,0 +1,68 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares GenericQueue's batch operations (enqueueAll, dequeue(max, consumer), drainTo) with
+ * the equivalent loops over single-element enqueue and dequeue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchQueueBenchmark {
+
+    @Param({ "16", "256", "4096" })
+    int batch;
+
+    Integer[] items;
+    GenericQueue<Integer> queue;
+    GenericQueue<Integer> other;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new Integer[batch];
+        for (int i = 0; i < batch; i++) {
+            items[i] = i;
+        }
+        queue = new GenericQueue<>();
+        other = new GenericQueue<>();
+    }
+
+    @Benchmark
+    public void loopEnqueueDequeue(Blackhole blackhole) {
+        for (Integer item : items) {
+            queue.enqueue(item);
+        }
+        for (int i = 0; i < batch; i++) {
+            blackhole.consume(queue.dequeue());
+        }
+    }
+
+    @Benchmark
+    public void batchEnqueueDequeue(Blackhole blackhole) {
+        queue.enqueueAll(items);
+        queue.dequeue(batch, blackhole::consume);
+    }
+
+    @Benchmark
+    public void loopTransfer(Blackhole blackhole) {
+        queue.enqueueAll(items);
+        Integer item;
+        while ((item = queue.dequeue()) != null) {
+            other.enqueue(item);
+        }
+        other.dequeue(batch, blackhole::consume);
+    }
+
+    @Benchmark
+    public void drainToTransfer(Blackhole blackhole) {
+        queue.enqueueAll(items);
+        queue.drainTo(other);
+        other.dequeue(batch, blackhole::consume);
+    }
+}
@@ -0,0 +1,34 @@
+package bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of target/benchmarks.jar. It hands the command line to JMH's own Main, so
+ * everything the stock JMH jar accepts works here too (benchmark regex, -p size=..., -f, -wi,
+ * -i, -l, -lp, -h, ...). When benchmarks are run, the GC profiler is added unless the command
+ * line already asks for it, so every result comes with allocation rate and GC counts next to
+ * the throughput. It is the same as running the stock jar with -prof gc.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        boolean listsOnly = commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats();
+        boolean profilesGc = false;
+        for (ProfilerConfig profiler : commandLine.getProfilers()) {
+            profilesGc |= profiler.getKlass().equals("gc") || profiler.getKlass().endsWith(".GCProfiler");
+        }
+        if (listsOnly || profilesGc) {
+            Main.main(args);
+            return;
+        }
+        String[] withGc = new String[args.length + 2];
+        withGc[0] = "-prof";
+        withGc[1] = "gc";
+        System.arraycopy(args, 0, withGc, 2, args.length);
+        Main.main(withGc);
+    }
+}
@@ -0,0 +1,88 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time to load n distinct keys into an empty MyHashMap: one put at a time into a default-sized
+ * map (doubling as it grows), one put at a time into a presized map, and with each bulk method.
+ * The maps copied by putAll are built once per trial; the map being loaded is new in every
+ * invocation, so allocation and resizing are part of what is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class BulkLoadBenchmark {
+
+    @Param({ "10000", "1000000" })
+    int size;
+
+    Integer[] keys;
+    Integer[] values;
+    HashMap<Integer, Integer> hashMap;
+    MyHashMap<Integer, Integer> myHashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        values = new Integer[size];
+        hashMap = new HashMap<>();
+        myHashMap = new MyHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = i * 0x9E3779B9;  // Scrambled, so neighbouring keys don't share buckets.
+            values[i] = i;
+            hashMap.put(keys[i], values[i]);
+            myHashMap.put(keys[i], values[i]);
+        }
+    }
+
+    @Benchmark
+    public MyHashMap<Integer, Integer> repeatedPut() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Integer, Integer> presizedPut() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Integer, Integer> putAllArrays() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.putAll(keys, values);
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Integer, Integer> putAllUnique() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.putAllUnique(keys, values);
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Integer, Integer> putAllMap() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.putAll(hashMap);
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Integer, Integer> putAllMyHashMap() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.putAll(myHashMap);
+        return map;
+    }
+}
@@ -0,0 +1,139 @@
+package bench;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Throughput and hit rate of MyCache on Zipfian request traces, in plain LRU mode and with
+ * W-TinyLFU admission, with an access-ordered LinkedHashMap as the LRU baseline. Every miss puts
+ * the key, as a read-through cache would. The hit and miss counts are reported as JMH auxiliary
+ * counters, so hitRate = hits / (hits + misses) can be read off the results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Thread)
+public class CacheBenchmark {
+
+    private static final int TRACE_LENGTH = 1 << 20;
+
+    @Param({ "1000", "10000" })
+    int cacheSize;
+
+    @Param({ "0.8", "1.0" })
+    double skew;
+
+    @Param({ "1000000" })
+    int keySpace;
+
+    Integer[] trace;
+    MyCache<Integer, Integer> lru;
+    MyCache<Integer, Integer> tinyLfu;
+    LinkedHashMap<Integer, Integer> linkedHashMap;
+    int cursor;
+
+    /**
+     * Hits and misses of the current iteration, summed over all invocations.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trace = zipfTrace(keySpace, skew, TRACE_LENGTH, new Random(7));
+        lru = new MyCache<>(cacheSize, false);
+        tinyLfu = new MyCache<>(cacheSize, true);
+        int maximum = cacheSize;
+        linkedHashMap = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > maximum;
+            }
+        };
+    }
+
+    /**
+     * Builds a trace of keys whose popularity follows Zipf's law: key k (from 1) is requested
+     * with probability proportional to 1 / k^skew. Keys are drawn by binary search in the
+     * cumulative distribution and then scrambled, so popular keys are not neighbours.
+     */
+    static Integer[] zipfTrace(int keySpace, double skew, int length, Random random) {
+        double[] cumulative = new double[keySpace];
+        double sum = 0;
+        for (int k = 0; k < keySpace; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        Integer[] trace = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            double u = random.nextDouble() * sum;
+            int low = 0;
+            int high = keySpace - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            trace[i] = low * 0x9E3779B9;
+        }
+        return trace;
+    }
+
+    private Integer nextKey() {
+        Integer key = trace[cursor];
+        cursor = (cursor + 1) & (TRACE_LENGTH - 1);
+        return key;
+    }
+
+    @Benchmark
+    public Integer lru(HitCounters counters) {
+        return request(lru, nextKey(), counters);
+    }
+
+    @Benchmark
+    public Integer tinyLfu(HitCounters counters) {
+        return request(tinyLfu, nextKey(), counters);
+    }
+
+    @Benchmark
+    public Integer linkedHashMap(HitCounters counters) {
+        Integer key = nextKey();
+        Integer value = linkedHashMap.get(key);
+        if (value == null) {
+            counters.misses++;
+            linkedHashMap.put(key, key);
+            return key;
+        }
+        counters.hits++;
+        return value;
+    }
+
+    private static Integer request(MyCache<Integer, Integer> cache, Integer key, HitCounters counters) {
+        Integer value = cache.get(key);
+        if (value == null) {
+            counters.misses++;
+            cache.put(key, key);
+            return key;
+        }
+        counters.hits++;
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Multi-threaded benchmarks comparing the concurrent structures with their single-threaded
+ * counterparts wrapped in a global synchronized block. Run with -t to change the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ConcurrencyBenchmark {
+
+    static final int KEYS = 100000;
+
+    String[] keys;
+    Integer[] values;
+    MyHashMap<String, Integer> map;
+    ConcurrentMyHashMap<Integer> concurrentMap;
+    GenericQueue<Integer> queue;
+    ConcurrentGenericQueue<Integer> concurrentQueue;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = (int) Thread.currentThread().getId() * 7919;
+
+        int nextIndex() {
+            next = (next + 0x9E3779B9) & Integer.MAX_VALUE;
+            return next % KEYS;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[KEYS];
+        values = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key" + i;
+            values[i] = i;
+        }
+        map = new MyHashMap<>(keys[0], values[0]);
+        concurrentMap = new ConcurrentMyHashMap<>(keys[0], values[0]);
+        for (int i = 0; i < KEYS; i++) {
+            map.put(keys[i], values[i]);
+            concurrentMap.put(keys[i], values[i]);
+        }
+        queue = new GenericQueue<>();
+        concurrentQueue = new ConcurrentGenericQueue<>();
+    }
+
+    @Benchmark
+    public Integer getSynchronized(Cursor cursor) {
+        String key = keys[cursor.nextIndex()];
+        synchronized (map) {
+            return map.get(key);
+        }
+    }
+
+    @Benchmark
+    public Integer getConcurrent(Cursor cursor) {
+        return concurrentMap.get(keys[cursor.nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer mixedSynchronized(Cursor cursor) {
+        int index = cursor.nextIndex();
+        synchronized (map) {
+            if ((index & 7) == 0) {
+                map.put(keys[index], values[index]);  // One write for every seven reads.
+                return null;
+            }
+            return map.get(keys[index]);
+        }
+    }
+
+    @Benchmark
+    public Integer mixedConcurrent(Cursor cursor) {
+        int index = cursor.nextIndex();
+        if ((index & 7) == 0) {
+            concurrentMap.put(keys[index], values[index]);
+            return null;
+        }
+        return concurrentMap.get(keys[index]);
+    }
+
+    @Benchmark
+    public Integer queueSynchronized(Cursor cursor) {
+        Integer value = values[cursor.nextIndex()];
+        synchronized (queue) {
+            queue.enqueue(value);
+        }
+        synchronized (queue) {
+            return queue.dequeue();
+        }
+    }
+
+    @Benchmark
+    public Integer queueConcurrent(Cursor cursor) {
+        concurrentQueue.enqueue(values[cursor.nextIndex()]);
+        return concurrentQueue.dequeue();
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Throughput of DurableGenericQueue as a work backlog, one enqueue and one dequeue of a 100-byte
+ * item per operation over a steady backlog, for several group-commit sizes: syncEvery = 1 forces
+ * the segment and writes the checkpoint on every operation, larger values amortize that cost over
+ * a batch. The in-memory GenericQueue is the baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DurableQueueBenchmark {
+
+    private static final int BACKLOG = 10000;
+
+    @Param({ "1", "100", "10000" })
+    int syncEvery;
+
+    String item;
+    Path dir;
+    DurableGenericQueue<String> durable;
+    GenericQueue<String> queue;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        item = "x".repeat(100);
+        dir = Files.createTempDirectory("durable");
+        durable = new DurableGenericQueue<>(dir, SnapshotCodec.UTF8, 16 << 20, syncEvery);
+        queue = new GenericQueue<>();
+        for (int i = 0; i < BACKLOG; i++) {
+            durable.enqueue(item);
+            queue.enqueue(item);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        durable.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String durable() {
+        durable.enqueue(item);
+        return durable.dequeue();
+    }
+
+    @Benchmark
+    public String inMemory() {
+        queue.enqueue(item);
+        return queue.dequeue();
+    }
+}
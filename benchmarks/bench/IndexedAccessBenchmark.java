@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A loop over every index calling get, as reporting code does over queue positions: O(n^2) on a
+ * plain GenericQueue, O(n) on a GenericQueue with cursor caching and on BlockDeque, with
+ * ArrayList as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexedAccessBenchmark {
+
+    @Param({ "100", "10000" })
+    int size;
+
+    GenericQueue<Integer> queue;
+    GenericQueue<Integer> cachedQueue;
+    BlockDeque<Integer> deque;
+    ArrayList<Integer> arrayList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new GenericQueue<>();
+        cachedQueue = new GenericQueue<>();
+        cachedQueue.setCursorCaching(true);
+        deque = new BlockDeque<>();
+        arrayList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(i);
+            cachedQueue.enqueue(i);
+            deque.enqueue(i);
+            arrayList.add(i);
+        }
+    }
+
+    @Benchmark
+    public long queue() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += queue.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cachedQueue() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += cachedQueue.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long blockDeque() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += deque.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayList() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += arrayList.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Integer blockDequeEnqueueDequeue() {
+        deque.enqueue(size);
+        return deque.dequeue();
+    }
+}
@@ -0,0 +1,140 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares MyHashMap lookups keyed by a compound key object (with a precomputed hash, with a
+ * HashingStrategy, and with identity semantics) against the old approach of serializing the
+ * compound key into a String for every lookup, and against plain String keys. Also measures
+ * the case-insensitive strategy against lower-casing String keys before each lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyStrategyBenchmark {
+
+    static final int SIZE = 100000;
+
+    /**
+     * A compound key with its hash computed once at construction.
+     */
+    static final class OrderKey {
+        final int customer;
+        final int order;
+        final int hash;
+
+        OrderKey(int customer, int order) {
+            this.customer = customer;
+            this.order = order;
+            this.hash = 31 * customer + order;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OrderKey
+                    && ((OrderKey) other).customer == customer && ((OrderKey) other).order == order;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    static final HashingStrategy<OrderKey> ORDER_STRATEGY = new HashingStrategy<OrderKey>() {
+        @Override
+        public int hash(OrderKey key) {
+            return key.hash;
+        }
+
+        @Override
+        public boolean equals(OrderKey a, OrderKey b) {
+            return a.customer == b.customer && a.order == b.order;
+        }
+    };
+
+    OrderKey[] orderKeys;
+    String[] stringKeys;
+    String[] mixedCaseKeys;
+    MyHashMap<OrderKey, Integer> objectMap;
+    MyHashMap<OrderKey, Integer> strategyMap;
+    MyHashMap<OrderKey, Integer> identityMap;
+    MyHashMap<String, Integer> stringMap;
+    MyHashMap<String, Integer> lowerCaseMap;
+    MyHashMap<String, Integer> caseInsensitiveMap;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderKeys = new OrderKey[SIZE];
+        stringKeys = new String[SIZE];
+        mixedCaseKeys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            orderKeys[i] = new OrderKey(i / 10, i % 10);
+            stringKeys[i] = serialize(orderKeys[i]);
+            mixedCaseKeys[i] = "Customer-" + i + "-ORDER";
+        }
+        objectMap = new MyHashMap<>(orderKeys[0], 0);
+        strategyMap = new MyHashMap<>(orderKeys[0], 0, ORDER_STRATEGY);
+        identityMap = new MyHashMap<>(orderKeys[0], 0, HashingStrategy.identity());
+        stringMap = new MyHashMap<>(stringKeys[0], 0);
+        lowerCaseMap = new MyHashMap<>(mixedCaseKeys[0].toLowerCase(), 0);
+        caseInsensitiveMap = new MyHashMap<>(mixedCaseKeys[0], 0, HashingStrategy.caseInsensitiveAscii());
+        for (int i = 0; i < SIZE; i++) {
+            objectMap.put(orderKeys[i], i);
+            strategyMap.put(orderKeys[i], i);
+            identityMap.put(orderKeys[i], i);
+            stringMap.put(stringKeys[i], i);
+            lowerCaseMap.put(mixedCaseKeys[i].toLowerCase(), i);
+            caseInsensitiveMap.put(mixedCaseKeys[i], i);
+        }
+    }
+
+    static String serialize(OrderKey key) {
+        return key.customer + ":" + key.order;
+    }
+
+    private int nextIndex() {
+        cursor = (cursor + 0x9E3779B9) & Integer.MAX_VALUE;
+        return cursor % SIZE;
+    }
+
+    @Benchmark
+    public Integer serializedCompoundKey() {
+        return stringMap.get(serialize(orderKeys[nextIndex()]));
+    }
+
+    @Benchmark
+    public Integer prebuiltStringKey() {
+        return stringMap.get(stringKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer compoundKeyEquals() {
+        return objectMap.get(orderKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer compoundKeyStrategy() {
+        return strategyMap.get(orderKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer compoundKeyIdentity() {
+        return identityMap.get(orderKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer lowerCasedStringKey() {
+        return lowerCaseMap.get(mixedCaseKeys[nextIndex()].toLowerCase());
+    }
+
+    @Benchmark
+    public Integer caseInsensitiveStrategy() {
+        return caseInsensitiveMap.get(mixedCaseKeys[nextIndex()]);
+    }
+}
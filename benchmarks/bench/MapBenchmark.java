@@ -0,0 +1,186 @@
+package bench;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-threaded benchmarks for MyHashMap and HMIterator, with java.util.HashMap as the
+ * baseline and OpenHashMap as the open-addressing alternative.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class MapBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    int size;
+
+    String[] keys;
+    String[] missingKeys;
+    Integer[] values;
+    MyHashMap<String, Integer> map;
+    OpenHashMap<Integer> openMap;
+    HashMap<String, Integer> hashMap;
+    HMCursor<String, Integer> entryCursor;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[size];
+        missingKeys = new String[size];
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+            missingKeys[i] = "missing" + i;
+            values[i] = i;
+        }
+        map = new MyHashMap<>(keys[0], values[0]);
+        openMap = new OpenHashMap<>(keys[0], values[0]);
+        hashMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], values[i]);
+            openMap.put(keys[i], values[i]);
+            hashMap.put(keys[i], values[i]);
+        }
+        entryCursor = map.cursor();
+    }
+
+    // Next index in a fixed pseudo-random walk over [0, size), so lookups don't stay in cache.
+    private int nextIndex() {
+        cursor = (cursor + 0x9E3779B9) & Integer.MAX_VALUE;
+        return cursor % size;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer getOpenHashMap() {
+        return openMap.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer getHashMap() {
+        return hashMap.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return map.contains(missingKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean containsMissingHashMap() {
+        return hashMap.containsKey(missingKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer replace() {
+        int index = nextIndex();
+        return map.replace(keys[index], values[index]);
+    }
+
+    @Benchmark
+    public void putExisting() {
+        int index = nextIndex();
+        map.put(keys[index], values[index]);
+    }
+
+    @Benchmark
+    public Integer putExistingHashMap() {
+        int index = nextIndex();
+        return hashMap.put(keys[index], values[index]);
+    }
+
+    @Benchmark
+    public Integer counterGetPut() {
+        String key = keys[nextIndex()];
+        Integer count = map.get(key);
+        map.put(key, count == null ? 1 : count + 1);
+        return count;
+    }
+
+    @Benchmark
+    public Integer counterMerge() {
+        return map.merge(keys[nextIndex()], 1, Integer::sum);
+    }
+
+    @Benchmark
+    public Integer removeAndReinsert() {
+        int index = nextIndex();
+        Integer removed = map.remove(keys[index]);
+        map.put(keys[index], values[index]);
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MyHashMap<String, Integer> build() {
+        MyHashMap<String, Integer> built = new MyHashMap<>(keys[0], values[0]);
+        for (int i = 1; i < size; i++) {
+            built.put(keys[i], values[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HashMap<String, Integer> buildHashMap() {
+        HashMap<String, Integer> built = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            built.put(keys[i], values[i]);
+        }
+        return built;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterate(Blackhole blackhole) {
+        for (Integer value : map) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterateCursor(Blackhole blackhole) {
+        entryCursor.reset();
+        while (entryCursor.next()) {
+            blackhole.consume(entryCursor.key());
+            blackhole.consume(entryCursor.value());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterateEntries(Blackhole blackhole) {
+        for (MyHashMap.MapEntry<String, Integer> entry : map.entries()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterateEntriesHashMap(Blackhole blackhole) {
+        for (java.util.Map.Entry<String, Integer> entry : hashMap.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterateHashMap(Blackhole blackhole) {
+        for (Integer value : hashMap.values()) {
+            blackhole.consume(value);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of the opt-in metrics on MyHashMap.get and GenericQueue enqueue/dequeue: the same
+ * structures with metrics disabled (a null check) and enabled (counters and the probe-length
+ * histogram).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+
+    private static final int SIZE = 1 << 16;
+
+    @Param({ "false", "true" })
+    boolean metrics;
+
+    MyHashMap<Integer, Integer> map;
+    GenericQueue<Integer> queue;
+    Integer[] keys;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[SIZE];
+        map = new MyHashMap<>(0, 0);
+        queue = new GenericQueue<>();
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = i * 2;  // Every other key is a miss.
+            map.put(i, i);
+            queue.enqueue(i);
+        }
+        if (metrics) {
+            map.enableMetrics();
+            queue.enableMetrics();
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        Integer key = keys[cursor];
+        cursor = (cursor + 1) & (SIZE - 1);
+        return map.get(key);
+    }
+
+    @Benchmark
+    public Integer enqueueDequeue() {
+        queue.enqueue(cursor++);
+        return queue.dequeue();
+    }
+}
@@ -0,0 +1,93 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A sustained write load (puts over a key space a little larger than the map, so most are
+ * overwrites with a fresh value and some are inserts) and random gets, on MyHashMap and on
+ * OffHeapHashMap. Each map lives in its own state, so only the map being measured is on the heap
+ * while its benchmark runs. The GC profiler that BenchmarkRunner attaches reports gc.time and
+ * gc.count next to the throughput; the heap is fixed so that pause times are comparable.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g", "-XX:MaxDirectMemorySize=3g" })
+public class OffHeapBenchmark {
+
+    private static final int OPERATIONS = 1 << 20;  // Length of the precomputed key sequence.
+
+    @State(Scope.Benchmark)
+    public static class Keys {
+        @Param({ "1000000", "4000000" })
+        int size;
+
+        Integer[] keys;
+        int cursor;
+        long counter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(7);
+            keys = new Integer[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                keys[i] = random.nextInt(size + size / 8);
+            }
+        }
+
+        Integer next() {
+            Integer key = keys[cursor];
+            cursor = (cursor + 1) & (OPERATIONS - 1);
+            return key;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OnHeap {
+        MyHashMap<Integer, String> map;
+
+        @Setup(Level.Trial)
+        public void setUp(Keys keys) {
+            map = new MyHashMap<>(0, "value-0");
+            for (int i = 1; i < keys.size; i++) {
+                map.put(i, "value-" + i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OffHeap {
+        OffHeapHashMap<Integer, String> map;
+
+        @Setup(Level.Trial)
+        public void setUp(Keys keys) {
+            map = new OffHeapHashMap<>(keys.size, SnapshotCodec.INTEGER, SnapshotCodec.UTF8);
+            for (int i = 0; i < keys.size; i++) {
+                map.put(i, "value-" + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void putOnHeap(Keys keys, OnHeap state) {
+        state.map.put(keys.next(), "value-" + keys.counter++);
+    }
+
+    @Benchmark
+    public void putOffHeap(Keys keys, OffHeap state) {
+        state.map.put(keys.next(), "value-" + keys.counter++);
+    }
+
+    @Benchmark
+    public String getOnHeap(Keys keys, OnHeap state) {
+        return state.map.get(keys.next());
+    }
+
+    @Benchmark
+    public String getOffHeap(Keys keys, OffHeap state) {
+        return state.map.get(keys.next());
+    }
+}
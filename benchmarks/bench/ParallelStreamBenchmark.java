@@ -0,0 +1,66 @@
+package bench;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Sums 10M values with sequential and parallel streams over MyHashMap (split by bucket ranges)
+ * and GenericQueue (split into copied batches), with the number of worker threads as a parameter
+ * to show how the parallel sum scales.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+@State(Scope.Benchmark)
+public class ParallelStreamBenchmark {
+
+    @Param({ "10000000" })
+    int size;
+
+    @Param({ "1", "2", "4", "8" })
+    int threads;
+
+    MyHashMap<Integer, Integer> map;
+    GenericQueue<Integer> queue;
+    ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new MyHashMap<>(0, 0);
+        queue = new GenericQueue<>();
+        for (int i = 0; i < size; i++) {
+            Integer value = i;
+            map.put(value, value);
+            queue.enqueue(value);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long mapSequential() {
+        return map.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long mapParallel() throws Exception {
+        return pool.submit(() -> map.parallelStream().mapToLong(Integer::longValue).sum()).get();
+    }
+
+    @Benchmark
+    public long queueSequential() {
+        return queue.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long queueParallel() throws Exception {
+        return pool.submit(() -> queue.parallelStream().mapToLong(Integer::longValue).sum()).get();
+    }
+}
@@ -0,0 +1,85 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the primitive-keyed maps with MyHashMap used the way numeric IDs are used today:
+ * turned into a String on every call (getStringified), and with the Strings built ahead of time
+ * (getPrebuiltString) to separate string building from hashing and equals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class PrimitiveMapBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int size;
+
+    long[] ids;
+    String[] idStrings;
+    MyHashMap<String, Integer> stringMap;
+    IntHashMap<Integer> intMap;
+    LongHashMap<Integer> longMap;
+    LongLongMap counters;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new long[size];
+        idStrings = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = 1_000_000_000L + i * 17L;
+            idStrings[i] = String.valueOf(ids[i]);
+        }
+        stringMap = new MyHashMap<>(idStrings[0], 0);
+        intMap = new IntHashMap<>((int) ids[0], 0);
+        longMap = new LongHashMap<>(ids[0], 0);
+        counters = new LongLongMap(ids[0], 0);
+        for (int i = 0; i < size; i++) {
+            stringMap.put(idStrings[i], i);
+            intMap.put((int) ids[i], i);
+            longMap.put(ids[i], i);
+            counters.put(ids[i], i);
+        }
+    }
+
+    private int nextIndex() {
+        cursor = (cursor + 0x9E3779B9) & Integer.MAX_VALUE;
+        return cursor % size;
+    }
+
+    @Benchmark
+    public Integer getStringified() {
+        return stringMap.get(String.valueOf(ids[nextIndex()]));
+    }
+
+    @Benchmark
+    public Integer getPrebuiltString() {
+        return stringMap.get(idStrings[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer getInt() {
+        return intMap.get((int) ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer getLong() {
+        return longMap.get(ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public void incrementStringified() {
+        String key = String.valueOf(ids[nextIndex()]);
+        stringMap.put(key, stringMap.get(key) + 1);
+    }
+
+    @Benchmark
+    public long incrementLongLong() {
+        return counters.addTo(ids[nextIndex()], 1);
+    }
+}
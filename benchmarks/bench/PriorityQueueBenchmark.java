@@ -0,0 +1,126 @@
+package bench;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * PriorityGenericQueue against java.util.PriorityQueue on a scheduler-like job mix: 5% urgent
+ * jobs (priority 0-9), 25% interactive (10-99) and 70% batch (100-999), so many jobs share a
+ * priority. The PriorityQueue orders by priority and then arrival, the same stable order.
+ *
+ * hold keeps the queue at a steady size: each operation runs the next job and submits a new one.
+ * aging also lowers the priority of a job submitted size operations earlier, as a scheduler does
+ * to stop batch jobs starving: decreaseKey on a handle for PriorityGenericQueue, remove and add
+ * (a linear search) for PriorityQueue, which has no decrease-key.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriorityQueueBenchmark {
+
+    private static final int TRACE_LENGTH = 1 << 16;
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    /**
+     * A job for the PriorityQueue baseline, which needs its own tie-breaker.
+     */
+    static final class Job {
+        int priority;
+        long sequence;
+        final int id;
+
+        Job(int priority, long sequence, int id) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.id = id;
+        }
+    }
+
+    int[] priorities;
+    int cursor;
+    long sequence;
+    PriorityGenericQueue<Integer> queue;
+    PriorityQueue<Job> priorityQueue;
+    PriorityGenericQueue.Handle<Integer>[] handles;  // Ring of the last size submissions.
+    Job[] jobs;
+
+    @Setup(Level.Iteration)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(7);
+        priorities = new int[TRACE_LENGTH];
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            int kind = random.nextInt(100);
+            priorities[i] = kind < 5 ? random.nextInt(10) : kind < 30 ? 10 + random.nextInt(90) : 100 + random.nextInt(900);
+        }
+        queue = new PriorityGenericQueue<>();
+        priorityQueue = new PriorityQueue<>((a, b) -> a.priority != b.priority
+                ? Integer.compare(a.priority, b.priority) : Long.compare(a.sequence, b.sequence));
+        handles = new PriorityGenericQueue.Handle[size];
+        jobs = new Job[size];
+        cursor = 0;
+        sequence = 0;
+        for (int i = 0; i < size; i++) {
+            submit();
+            submitJob();
+            cursor++;
+        }
+    }
+
+    private int nextPriority() {
+        return priorities[cursor & (TRACE_LENGTH - 1)];
+    }
+
+    private void submit() {
+        handles[cursor % size] = queue.enqueue(cursor, nextPriority());
+    }
+
+    private void submitJob() {
+        Job job = new Job(nextPriority(), sequence++, cursor);
+        jobs[cursor % size] = job;
+        priorityQueue.add(job);
+    }
+
+    @Benchmark
+    public Integer hold() {
+        Integer job = queue.dequeue();
+        submit();
+        cursor++;
+        return job;
+    }
+
+    @Benchmark
+    public Job holdPriorityQueue() {
+        Job job = priorityQueue.poll();
+        submitJob();
+        cursor++;
+        return job;
+    }
+
+    @Benchmark
+    public Integer aging() {
+        PriorityGenericQueue.Handle<Integer> old = handles[cursor % size];
+        if (old.isQueued()) {
+            queue.decreaseKey(old, old.getPriority() / 2);
+        }
+        return hold();
+    }
+
+    @Benchmark
+    public Job agingPriorityQueue() {
+        Job old = jobs[cursor % size];
+        if (old.priority > 0 && priorityQueue.remove(old)) {
+            old.priority /= 2;
+            old.sequence = sequence++;
+            priorityQueue.add(old);
+        }
+        return holdPriorityQueue();
+    }
+}
@@ -0,0 +1,106 @@
+package bench;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-threaded benchmarks for GenericQueue and the list operations it inherits, with
+ * ArrayDeque as the java.util baseline and RingBufferQueue as the array-backed alternative.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Thread)
+public class QueueBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    int size;
+
+    GenericQueue<Integer> queue;
+    ArrayDeque<Integer> deque;
+    RingBufferQueue<Integer> ring;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new GenericQueue<>();
+        deque = new ArrayDeque<>(size);
+        ring = new RingBufferQueue<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(i);
+            deque.addLast(i);
+            ring.enqueue(i);
+        }
+    }
+
+    // Next index in a fixed pseudo-random walk over [0, size), so get/set don't always hit the head.
+    private int nextIndex() {
+        cursor = (cursor + 0x9E3779B9) & Integer.MAX_VALUE;
+        return cursor % size;
+    }
+
+    @Benchmark
+    public Integer enqueueDequeue() {
+        queue.enqueue(cursor++);
+        return queue.dequeue();
+    }
+
+    @Benchmark
+    public Integer enqueueDequeueArrayDeque() {
+        deque.addLast(cursor++);
+        return deque.pollFirst();
+    }
+
+    @Benchmark
+    public Integer enqueueDequeueRingBuffer() {
+        ring.offer(cursor++);
+        return ring.poll();
+    }
+
+    @Benchmark
+    public Integer get() {
+        return queue.get(nextIndex());
+    }
+
+    @Benchmark
+    public Integer set() {
+        int index = nextIndex();
+        return queue.set(index, index);
+    }
+
+    @Benchmark
+    public Integer getRingBuffer() {
+        return ring.get(nextIndex());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterator(Blackhole blackhole) {
+        for (Integer value : queue) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void descendingIterator(Blackhole blackhole) {
+        Iterator<Integer> iterator = queue.descendingIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void descendingIteratorArrayDeque(Blackhole blackhole) {
+        Iterator<Integer> iterator = deque.descendingIterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
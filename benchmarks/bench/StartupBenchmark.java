@@ -0,0 +1,62 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time to a usable map on a warm start: rebuilding a MyHashMap by putting every entry again,
+ * against opening a saved MapSnapshot and doing the first lookup. Each invocation is timed once
+ * (single shot), as a restart would be; opening a snapshot maps the file, and mappings are only
+ * released when the buffer is collected, so a throughput loop would pile them up.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({ "100000", "1000000" })
+    int size;
+
+    String[] keys;
+    Integer[] values;
+    Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        keys = new String[size];
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "user:" + i;
+            values[i] = i;
+        }
+        MyHashMap<String, Integer> map = rebuildWithPut();
+        file = Files.createTempFile("startup", ".snapshot");
+        map.save(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MyHashMap<String, Integer> rebuildWithPut() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(keys[0], values[0]);
+        for (int i = 1; i < size; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Integer openSnapshot() throws IOException {
+        MapSnapshot<String, Integer> snapshot = MapSnapshot.open(file, SnapshotCodec.UTF8, SnapshotCodec.INTEGER);
+        return snapshot.get(keys[size / 2]);
+    }
+}